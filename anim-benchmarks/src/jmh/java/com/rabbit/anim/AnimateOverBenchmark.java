@@ -0,0 +1,54 @@
+package com.rabbit.anim;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * animateOver竞争耗时：1~64个生产者线程并发累加同一实例
+ * <p>
+ * 帧线程不消费重定向请求，首次请求之后所有调用都走合并路径，即生产者稳态下的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnimateOverBenchmark {
+    private ProgressEngine engine;
+
+    @Setup
+    public void setup() {
+        engine = new ProgressEngine(new ManualFrameScheduler());
+        engine.setMax(Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads01() {
+        engine.animateOver(1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void threads04() {
+        engine.animateOver(1);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void threads16() {
+        engine.animateOver(1);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void threads64() {
+        engine.animateOver(1);
+    }
+}
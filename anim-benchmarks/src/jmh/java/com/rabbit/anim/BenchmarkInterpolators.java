@@ -0,0 +1,77 @@
+package com.rabbit.anim;
+
+/**
+ * 基准测试用插值器，与Android对应插值器的计算公式一致
+ */
+final class BenchmarkInterpolators {
+    private BenchmarkInterpolators() {
+    }
+
+    /**
+     * 按名称获取插值器
+     *
+     * @param name linear、accelerateDecelerate、overshoot、bounce、path
+     * @return 插值器
+     */
+    static ProgressInterpolator of(String name) {
+        switch (name) {
+            case "linear":
+                return ProgressInterpolator.LINEAR;
+            case "accelerateDecelerate":
+                return input -> (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+            case "overshoot":
+                return input -> {
+                    float t = input - 1.0f;
+                    return t * t * ((2.0f + 1) * t + 2.0f) + 1.0f;
+                };
+            case "bounce":
+                return BenchmarkInterpolators::bounce;
+            case "path":
+                // 与PathInterpolator(0.4, 0, 0.2, 1)相同的三次贝塞尔曲线
+                return input -> cubicBezier(input, 0.4f, 0f, 0.2f, 1f);
+            default:
+                throw new IllegalArgumentException("Unknown interpolator: " + name);
+        }
+    }
+
+    private static float bounce(float t) {
+        t *= 1.1226f;
+        if (t < 0.3535f) {
+            return bounceCurve(t);
+        } else if (t < 0.7408f) {
+            return bounceCurve(t - 0.54719f) + 0.7f;
+        } else if (t < 0.9644f) {
+            return bounceCurve(t - 0.8526f) + 0.9f;
+        } else {
+            return bounceCurve(t - 1.0435f) + 0.95f;
+        }
+    }
+
+    private static float bounceCurve(float t) {
+        return t * t * 8.0f;
+    }
+
+    /**
+     * 求解x=input处的三次贝塞尔曲线y值，二分查找参数t
+     */
+    private static float cubicBezier(float input, float x1, float y1, float x2, float y2) {
+        float low = 0f;
+        float high = 1f;
+        float t = input;
+        for (int i = 0; i < 24; i++) {
+            t = (low + high) * 0.5f;
+            float x = bezier(t, x1, x2);
+            if (x < input) {
+                low = t;
+            } else {
+                high = t;
+            }
+        }
+        return bezier(t, y1, y2);
+    }
+
+    private static float bezier(float t, float p1, float p2) {
+        float u = 1f - t;
+        return 3f * u * u * t * p1 + 3f * u * t * t * p2 + t * t * t;
+    }
+}
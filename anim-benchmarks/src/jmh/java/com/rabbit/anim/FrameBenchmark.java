@@ -0,0 +1,57 @@
+package com.rabbit.anim;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单帧开销：进度计算、插值与单个监听器通知，以及开启运行指标后的额外开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FrameBenchmark {
+    @Param({"linear", "path"})
+    public String interpolatorName;
+
+    @Param({"0", "1"})
+    public int dispatchMode;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private ManualFrameScheduler scheduler;
+
+    private ProgressEngine engine;
+
+    private boolean forward;
+
+    @Setup
+    public void setup() {
+        scheduler = new ManualFrameScheduler();
+        engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        engine.setDuration(2000);
+        engine.setInterpolator(BenchmarkInterpolators.of(interpolatorName));
+        engine.setDispatchMode(dispatchMode);
+        engine.setMetrics(metrics ? new ProgressAnimMetrics() : null);
+        engine.registerOnProgressListener("bench", new SinkListener());
+    }
+
+    @Benchmark
+    public int frame() {
+        if (scheduler.getFrameCallbackCount() == 0) {
+            // 一段动画结束后反向重新开始，保持每次测量都有活动动画
+            forward = !forward;
+            engine.animateTo(forward ? engine.getMax() : 0);
+        }
+        return scheduler.doFrame();
+    }
+}
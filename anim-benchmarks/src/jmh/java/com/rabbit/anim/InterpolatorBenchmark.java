@@ -0,0 +1,52 @@
+package com.rabbit.anim;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 插值器单次计算耗时
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolatorBenchmark {
+    private static final float STEP = 1f / 1024;
+
+    @Param({"linear", "accelerateDecelerate", "overshoot", "bounce", "path"})
+    public String interpolatorName;
+
+    /**
+     * 查找表分辨率，为0时直接计算
+     */
+    @Param({"0", "256"})
+    public int tableResolution;
+
+    private ProgressInterpolator interpolator;
+
+    private float input;
+
+    @Setup
+    public void setup() {
+        interpolator = BenchmarkInterpolators.of(interpolatorName);
+        if (tableResolution > 0) {
+            interpolator = LookupTableInterpolator.bake(interpolator, tableResolution);
+        }
+    }
+
+    @Benchmark
+    public float evaluate() {
+        input += STEP;
+        if (input > 1f) {
+            input = 0f;
+        }
+        return interpolator.getInterpolation(input);
+    }
+}
@@ -0,0 +1,40 @@
+package com.rabbit.anim;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监听器扇出耗时：单帧通知1、10、100个监听器
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListenerDispatchBenchmark {
+    @Param({"1", "10", "100"})
+    public int listenerCount;
+
+    private ProgressListenerArray listeners;
+
+    private int progress;
+
+    @Setup
+    public void setup() {
+        listeners = new ProgressListenerArray();
+        for (int i = 0; i < listenerCount; i++) {
+            listeners.put("listener" + i, new SinkListener());
+        }
+    }
+
+    @Benchmark
+    public void dispatch() {
+        listeners.dispatch(progress, progress++ / 1e6, false);
+    }
+}
@@ -0,0 +1,81 @@
+package com.rabbit.anim;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 主进度与缓冲进度：两个独立引擎与一个双通道引擎的单帧开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MultiChannelBenchmark {
+    private ManualFrameScheduler twoEnginesScheduler;
+    private ProgressEngine primary;
+    private ProgressEngine secondary;
+
+    private ManualFrameScheduler multiChannelScheduler;
+    private MultiChannelProgressEngine multiChannel;
+
+    private boolean twoEnginesForward;
+    private boolean multiChannelForward;
+
+    @Setup
+    public void setup() {
+        twoEnginesScheduler = new ManualFrameScheduler();
+        primary = newEngine(twoEnginesScheduler);
+        secondary = newEngine(twoEnginesScheduler);
+
+        multiChannelScheduler = new ManualFrameScheduler();
+        multiChannel = new MultiChannelProgressEngine(multiChannelScheduler, 2);
+        multiChannel.setDuration(2000);
+        long[] sink = new long[2];
+        multiChannel.registerOnChannelsChangeListener("bench", new MultiChannelProgressEngine.OnChannelsChangeListener() {
+            @Override
+            public void onChange(long[] progress, double[] fractions) {
+                sink[0] = progress[0];
+                sink[1] = progress[1];
+            }
+
+            @Override
+            public void onFinish(int channel) {
+            }
+        });
+    }
+
+    private static ProgressEngine newEngine(ManualFrameScheduler scheduler) {
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        engine.setDuration(2000);
+        engine.registerOnProgressListener("bench", new SinkListener());
+        return engine;
+    }
+
+    @Benchmark
+    public int twoEngines() {
+        if (twoEnginesScheduler.getFrameCallbackCount() == 0) {
+            // 一段动画结束后反向重新开始，保持每次测量都有活动动画
+            twoEnginesForward = !twoEnginesForward;
+            primary.animateTo(twoEnginesForward ? 100 : 0);
+            secondary.animateTo(twoEnginesForward ? 100 : 0);
+        }
+        return twoEnginesScheduler.doFrame();
+    }
+
+    @Benchmark
+    public int multiChannel() {
+        if (multiChannelScheduler.getFrameCallbackCount() == 0) {
+            multiChannelForward = !multiChannelForward;
+            multiChannel.animateTo(0, multiChannelForward ? 100 : 0);
+            multiChannel.animateTo(1, multiChannelForward ? 100 : 0);
+        }
+        return multiChannelScheduler.doFrame();
+    }
+}
@@ -0,0 +1,19 @@
+package com.rabbit.anim;
+
+/**
+ * 基准测试用监听器，将进度值写入字段防止被JIT消除
+ */
+final class SinkListener implements ProgressAnimInterface.OnProgressChangeListener {
+    int progress;
+    int finishes;
+
+    @Override
+    public void onChange(int progress) {
+        this.progress = progress;
+    }
+
+    @Override
+    public void onFinish() {
+        finishes++;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rabbit.anim;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 回放调用轨迹的总耗时，可通过-p tracePath=指定线上记录的轨迹文件作为回归基准；
+ * 未指定时使用合成的下载场景轨迹
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TraceReplayBenchmark {
+    @Param({""})
+    public String tracePath;
+
+    private ProgressTraceReplay replay;
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] trace = tracePath.isEmpty() ? syntheticTrace() : Files.readAllBytes(Paths.get(tracePath));
+        replay = new ProgressTraceReplay(trace);
+    }
+
+    /**
+     * 合成轨迹：不规则间隔的分块到达，期间注册、取消注册监听器
+     */
+    private static byte[] syntheticTrace() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler();
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(1_000_000);
+        engine.setDuration(300);
+        ProgressTraceRecorder recorder = new ProgressTraceRecorder();
+        engine.setTraceRecorder(recorder);
+        engine.registerOnProgressListener("bench", new SinkListener());
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            engine.animateOver(random.nextInt(4000));
+            if (i % 100 == 50) {
+                engine.registerOnProgressListener("overlay", new SinkListener());
+            } else if (i % 100 == 99) {
+                engine.unregisterOnProgressListener("overlay");
+            }
+            scheduler.advance(random.nextInt(200_000_000));
+        }
+        return recorder.toByteArray();
+    }
+
+    @Benchmark
+    public ProgressTraceReplay.Report replay() {
+        return replay.run();
+    }
+}
@@ -0,0 +1,213 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按帧预算通知监听器
+ * <p>
+ * 高优先级监听器总会通知；预算用完后，低优先级监听器标记为待补发，在之后的帧收到届时的最新进度值，
+ * 其间错过的结束通知在补发时按“最大进度、结束、最新进度”的顺序送达。
+ * 低优先级监听器从上次最先被推迟的一个开始轮转通知，且每帧至少补发一个，不会一直被推迟。仅在帧线程使用
+ */
+final class BudgetedDispatcher {
+    private static final boolean[] EMPTY = new boolean[0];
+
+    /**
+     * 待补发状态对应的监听器快照
+     */
+    @Nullable
+    private ProgressListenerArray.Snapshot boundSnapshot;
+
+    /**
+     * 与低优先级监听器一一对应：是否尚未收到最新进度值
+     */
+    @NonNull
+    private boolean[] stale = EMPTY;
+
+    /**
+     * 与低优先级监听器一一对应：是否有推迟的结束通知
+     */
+    @NonNull
+    private boolean[] staleFinish = EMPTY;
+
+    /**
+     * 待补发的监听器数量
+     */
+    private int staleCount;
+
+    /**
+     * 下次最先通知的低优先级监听器下标
+     */
+    private int cursor;
+
+    /**
+     * 是否有待补发的监听器
+     *
+     * @return 是否有待补发的监听器
+     */
+    boolean hasDeferred() {
+        return staleCount > 0;
+    }
+
+    /**
+     * 通知监听器
+     *
+     * @param snapshot       监听器快照
+     * @param progress       当前进度值
+     * @param fraction       精确的完成比例
+     * @param isFinish       是否通知动画结束
+     * @param max            最大进度，补发结束通知时使用
+     * @param budget         帧预算。为null时通知所有监听器
+     * @param frameTimeNanos 帧时间(纳秒)
+     * @param deferredOnly   是否只补发待补发的监听器
+     * @param timers         与监听器快照一一对应的计时器。为null时不计时
+     * @return 本次推迟的监听器数量
+     */
+    int dispatch(@NonNull ProgressListenerArray.Snapshot snapshot, long progress, double fraction, boolean isFinish,
+                 long max, @Nullable FrameBudget budget, long frameTimeNanos, boolean deferredOnly,
+                 @Nullable ProgressAnimMetrics.ListenerTimer[] timers) {
+        bind(snapshot);
+        ProgressAnimInterface.OnLongProgressChangeListener[] listeners = snapshot.listeners;
+        int high = snapshot.highCount;
+        int low = listeners.length - high;
+        if (budget != null) {
+            budget.begin(frameTimeNanos);
+        }
+        long start = System.nanoTime();
+        if (!deferredOnly) {
+            for (int i = 0; i < high; i++) {
+                listeners[i].onChange(progress, fraction);
+                if (isFinish) {
+                    listeners[i].onFinish();
+                }
+                start = record(budget, timers, i, start);
+            }
+        }
+        int deferred = 0;
+        int firstDeferred = -1;
+        boolean drained = false;
+        for (int k = 0; k < low; k++) {
+            int i = cursor + k < low ? cursor + k : cursor + k - low;
+            if (deferredOnly && !stale[i]) {
+                continue;
+            }
+            boolean finish = isFinish || staleFinish[i];
+            // 每帧至少补发一个已被推迟的监听器，保证高优先级监听器用完预算时也不会一直推迟
+            if (budget != null && budget.isExhausted() && (drained || !stale[i])) {
+                if (!stale[i]) {
+                    stale[i] = true;
+                    staleCount++;
+                }
+                staleFinish[i] = finish;
+                if (firstDeferred < 0) {
+                    firstDeferred = i;
+                }
+                deferred++;
+                continue;
+            }
+            if (stale[i]) {
+                stale[i] = false;
+                staleFinish[i] = false;
+                staleCount--;
+                drained = true;
+            }
+            deliver(listeners[high + i], progress, fraction, finish, max);
+            start = record(budget, timers, high + i, start);
+        }
+        if (firstDeferred >= 0) {
+            cursor = firstDeferred;
+        }
+        return deferred;
+    }
+
+    /**
+     * 通知单个监听器，补发错过的结束通知
+     */
+    private static void deliver(@NonNull ProgressAnimInterface.OnLongProgressChangeListener listener, long progress,
+                                double fraction, boolean finish, long max) {
+        if (finish && progress != max) {
+            // 推迟期间动画已结束并开始了新一轮，先补发结束，再通知最新进度
+            listener.onChange(max, 1d);
+            listener.onFinish();
+            listener.onChange(progress, fraction);
+            return;
+        }
+        listener.onChange(progress, fraction);
+        if (finish) {
+            listener.onFinish();
+        }
+    }
+
+    /**
+     * 记录单个监听器的耗时
+     *
+     * @return 本次记录的时间(纳秒)
+     */
+    private static long record(@Nullable FrameBudget budget, @Nullable ProgressAnimMetrics.ListenerTimer[] timers,
+                               int index, long start) {
+        long end = System.nanoTime();
+        if (timers != null) {
+            timers[index].record(end - start);
+        }
+        if (budget != null) {
+            budget.charge(end - start);
+        }
+        return end;
+    }
+
+    /**
+     * 监听器快照变化时按Key迁移待补发状态
+     *
+     * @param snapshot 监听器快照
+     */
+    private void bind(@NonNull ProgressListenerArray.Snapshot snapshot) {
+        ProgressListenerArray.Snapshot old = boundSnapshot;
+        if (snapshot == old) {
+            return;
+        }
+        boundSnapshot = snapshot;
+        int low = snapshot.listeners.length - snapshot.highCount;
+        boolean[] oldStale = stale;
+        boolean[] oldStaleFinish = staleFinish;
+        stale = low > 0 ? new boolean[low] : EMPTY;
+        staleFinish = low > 0 ? new boolean[low] : EMPTY;
+        if (cursor >= low) {
+            cursor = 0;
+        }
+        if (staleCount == 0 || old == null) {
+            staleCount = 0;
+            return;
+        }
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < low; i++) {
+            indexes.put(snapshot.keys[snapshot.highCount + i], i);
+        }
+        staleCount = 0;
+        for (int j = 0; j < oldStale.length; j++) {
+            if (!oldStale[j]) {
+                continue;
+            }
+            Integer i = indexes.get(old.keys[old.highCount + j]);
+            if (i != null) {
+                stale[i] = true;
+                staleFinish[i] = oldStaleFinish[j];
+                staleCount++;
+            }
+        }
+    }
+
+    /**
+     * 清空待补发状态
+     */
+    void clear() {
+        boundSnapshot = null;
+        stale = EMPTY;
+        staleFinish = EMPTY;
+        staleCount = 0;
+        cursor = 0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * 紧凑二进制读取器，与{@link ByteArrayWriter}对应。数据不完整或格式不正确时抛出IllegalArgumentException
+ */
+final class ByteArrayReader {
+    private final byte[] bytes;
+    private int position;
+
+    ByteArrayReader(@NonNull byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    boolean hasRemaining() {
+        return position < bytes.length;
+    }
+
+    int remaining() {
+        return bytes.length - position;
+    }
+
+    int readByte() {
+        if (position >= bytes.length) {
+            throw new IllegalArgumentException("truncated input");
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    int readInt() {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    long readLong() {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    long readVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalArgumentException("corrupt varint");
+    }
+
+    /**
+     * 读取长度与字节
+     */
+    @NonNull
+    byte[] readBytes() {
+        long length = readVarLong();
+        if (length < 0 || length > remaining()) {
+            throw new IllegalArgumentException("truncated input");
+        }
+        int start = position;
+        position += (int) length;
+        return Arrays.copyOfRange(bytes, start, position);
+    }
+}
@@ -0,0 +1,78 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * 紧凑二进制写入器，整数以ZigZag变长编码，用于状态快照与调用轨迹
+ */
+final class ByteArrayWriter {
+    private byte[] buffer;
+    private int size;
+
+    ByteArrayWriter() {
+        this(32);
+    }
+
+    /**
+     * @param capacity 初始容量(字节)
+     */
+    ByteArrayWriter(int capacity) {
+        buffer = new byte[Math.max(8, capacity)];
+    }
+
+    void writeByte(int value) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, size << 1);
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    void writeInt(int value) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            writeByte(value >>> shift);
+        }
+    }
+
+    void writeLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            writeByte((int) (value >>> shift));
+        }
+    }
+
+    /**
+     * ZigZag变长编码，每字节7位
+     */
+    void writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        writeByte((int) zigzag);
+    }
+
+    /**
+     * 写入长度与字节
+     */
+    void writeBytes(@NonNull byte[] bytes) {
+        writeVarLong(bytes.length);
+        for (byte b : bytes) {
+            writeByte(b);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    @NonNull
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+}
@@ -0,0 +1,223 @@
+package com.rabbit.anim;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 字节进度上报器
+ * <p>
+ * 在I/O线程累加已传输字节数，换算为进度值后按采样间隔调用{@link ProgressAnimInterface#animateTo(int)}。
+ * 换算后的进度值未变化时只做一次比较，不读取时钟也不提交任何任务；采样间隔内按上次上报以来的传输速率
+ * 估计下一次需要读取时钟的字节数，之前的数据块同样只做一次比较。即使最大进度与总字节数相同，
+ * I/O循环中每个数据块的开销也可忽略。速率骤降时上报可能晚于采样间隔，{@link #flush()}总会上报最终进度。
+ * 非线程安全，同一时刻仅限一个I/O线程使用。
+ */
+public final class ByteProgressReporter {
+    /**
+     * 默认采样间隔(纳秒)，约一帧
+     */
+    public static final long DEFAULT_MIN_INTERVAL_NANOS = 16_000_000L;
+
+    /**
+     * 进度动画
+     */
+    @NonNull
+    private final ProgressAnimInterface target;
+
+    /**
+     * 64位进度动画引擎，非null时按64位进度值上报
+     */
+    @Nullable
+    private final ProgressEngine engine;
+
+    /**
+     * 最大进度，对应总字节数
+     */
+    private final long max;
+
+    /**
+     * 总字节数
+     */
+    private final long totalBytes;
+
+    /**
+     * 相邻两次上报的最小间隔(纳秒)
+     */
+    private long minIntervalNanos = DEFAULT_MIN_INTERVAL_NANOS;
+
+    /**
+     * 已传输字节数
+     */
+    private long bytes;
+
+    /**
+     * 下次需要换算进度值的字节数
+     */
+    private long nextBytes;
+
+    /**
+     * 上次上报的进度值
+     */
+    private long reported;
+
+    /**
+     * 上次上报时的已传输字节数
+     */
+    private long reportedBytes;
+
+    /**
+     * 上次上报的时间(纳秒)
+     */
+    private long lastReportNanos;
+
+    /**
+     * 是否已上报过
+     */
+    private boolean started;
+
+    /**
+     * @param target     进度动画
+     * @param max        最大进度，与进度动画的最大进度一致
+     * @param totalBytes 总字节数。数值需要大于0
+     */
+    public ByteProgressReporter(@NonNull ProgressAnimInterface target, @IntRange(from = 1) int max,
+                                @IntRange(from = 1) long totalBytes) {
+        this(target, null, max, totalBytes);
+    }
+
+    /**
+     * 按引擎的最大进度换算，最大进度可与总字节数相同以精确到字节
+     *
+     * @param engine     进度动画引擎
+     * @param totalBytes 总字节数。数值需要大于0
+     */
+    public ByteProgressReporter(@NonNull ProgressEngine engine, @IntRange(from = 1) long totalBytes) {
+        this(engine, engine, engine.getMax(), totalBytes);
+    }
+
+    private ByteProgressReporter(@NonNull ProgressAnimInterface target, @Nullable ProgressEngine engine, long max,
+                                 long totalBytes) {
+        if (max <= 0 || totalBytes <= 0) {
+            throw new IllegalArgumentException("max and totalBytes must be positive");
+        }
+        this.target = target;
+        this.engine = engine;
+        this.max = max;
+        this.totalBytes = totalBytes;
+        this.nextBytes = bytesFor(1);
+    }
+
+    /**
+     * 设置采样间隔，间隔内的进度变化合并到下一次上报
+     *
+     * @param minIntervalMillis 相邻两次上报的最小间隔(毫秒)。为0时进度值变化即上报
+     * @return 当前实例以链式调用
+     */
+    @NonNull
+    public ByteProgressReporter setMinInterval(@IntRange(from = 0) long minIntervalMillis) {
+        this.minIntervalNanos = Math.max(0L, minIntervalMillis) * 1_000_000L;
+        return this;
+    }
+
+    /**
+     * 累加已传输字节数。热路径
+     *
+     * @param count 本次传输的字节数
+     */
+    public void onBytes(long count) {
+        if (count <= 0) {
+            return;
+        }
+        long total = bytes += count;
+        if (total < nextBytes) {
+            return;
+        }
+        long progress = progressOf(total);
+        if (started && progress == reported) {
+            // 双精度误差导致提前换算，顺延
+            nextBytes = Math.max(total, bytesFor(progress + 1)) + 1;
+            return;
+        }
+        long now = System.nanoTime();
+        long elapsed = now - lastReportNanos;
+        if (started && elapsed < minIntervalNanos) {
+            // 间隔内不上报。按传输速率推进剩余间隔一半的字节数，逐步逼近间隔结束，其间的数据块不读取时钟
+            double bytesPerNano = (double) (total - reportedBytes) / Math.max(1L, elapsed);
+            long ahead = (long) (bytesPerNano * (minIntervalNanos - elapsed) / 2);
+            nextBytes = Math.min(total + Math.max(1L, ahead), totalBytes);
+            return;
+        }
+        report(progress, now);
+    }
+
+    /**
+     * 上报当前进度，忽略采样间隔。传输结束或关闭时调用
+     */
+    public void flush() {
+        long progress = progressOf(bytes);
+        if (!started || progress != reported) {
+            report(progress, System.nanoTime());
+        }
+    }
+
+    /**
+     * 获取已传输字节数
+     *
+     * @return 已传输字节数
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * 获取总字节数
+     *
+     * @return 总字节数
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 上报进度值
+     *
+     * @param progress 进度值
+     * @param now      当前时间(纳秒)
+     */
+    private void report(long progress, long now) {
+        started = true;
+        reported = progress;
+        reportedBytes = bytes;
+        lastReportNanos = now;
+        nextBytes = progress >= max ? Long.MAX_VALUE : Math.max(bytes + 1, bytesFor(progress + 1));
+        if (engine != null) {
+            engine.animateTo(progress);
+        } else {
+            target.animateTo((int) progress);
+        }
+    }
+
+    /**
+     * 字节数换算为进度值
+     *
+     * @param byteCount 字节数
+     * @return 进度值，取值[0,max]
+     */
+    private long progressOf(long byteCount) {
+        if (byteCount >= totalBytes) {
+            return max;
+        }
+        return (long) ((double) byteCount * max / totalBytes);
+    }
+
+    /**
+     * 进度值换算为字节数，双精度误差由{@link #progressOf(long)}兜底
+     *
+     * @param progress 进度值
+     * @return 达到该进度值所需的最少字节数
+     */
+    private long bytesFor(long progress) {
+        return (long) Math.ceil((double) progress * totalBytes / max);
+    }
+}
@@ -0,0 +1,323 @@
+package com.rabbit.anim;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 加权组合进度
+ * <p>
+ * 由多个子任务组成的进度，如分片并行下载。每个子任务按权重折算为定点数贡献值，
+ * 更新时只把贡献值的增量累加到{@link StripedCounter}，不持有全局锁，读取总进度与子任务数量无关。
+ * 子任务可在任意线程更新，组合进度在帧线程每帧至多采样一次并调用{@link ProgressAnimInterface#animateTo(int)}。
+ */
+public final class CompositeProgress {
+    /**
+     * 单位权重对应的定点数贡献值
+     */
+    private static final long WEIGHT_SCALE = 1L << 20;
+
+    /**
+     * 所有子任务的权重之和上限，约8.8e12，保证贡献值之和不超出long范围
+     */
+    public static final double MAX_TOTAL_WEIGHT = (double) (Long.MAX_VALUE / WEIGHT_SCALE);
+
+    /**
+     * 进度动画
+     */
+    @NonNull
+    private final ProgressAnimInterface target;
+
+    /**
+     * 64位进度动画引擎，非null时按64位进度值驱动
+     */
+    @Nullable
+    private final ProgressEngine engine;
+
+    /**
+     * 帧调度器
+     */
+    @NonNull
+    private final FrameScheduler scheduler;
+
+    /**
+     * 最大进度
+     */
+    private final long max;
+
+    /**
+     * 已完成的贡献值
+     */
+    private final StripedCounter completedUnits = new StripedCounter();
+
+    /**
+     * 所有子任务的贡献值上限之和
+     */
+    private final AtomicLong totalUnits = new AtomicLong();
+
+    /**
+     * 是否有未采样的更新
+     */
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    /**
+     * 帧回调
+     */
+    private final FrameScheduler.FrameCallback frameCallback = this::doFrame;
+
+    /**
+     * 在帧线程加入帧回调
+     */
+    private final Runnable wakeUp = this::wakeUp;
+
+    /**
+     * 是否已加入帧回调。仅帧线程读写
+     */
+    private boolean ticking;
+
+    /**
+     * 上次采样的进度值。仅帧线程读写
+     */
+    private long sampled = -1;
+
+    /**
+     * 是否已释放
+     */
+    private volatile boolean released;
+
+    /**
+     * @param target    进度动画
+     * @param max       进度动画的最大进度
+     * @param scheduler 帧调度器，与进度动画使用同一个
+     */
+    public CompositeProgress(@NonNull ProgressAnimInterface target, @IntRange(from = 1) int max,
+                             @NonNull FrameScheduler scheduler) {
+        this(target, null, max, scheduler);
+    }
+
+    /**
+     * 驱动进度动画引擎，使用其最大进度与帧调度器
+     *
+     * @param engine 进度动画引擎
+     */
+    public CompositeProgress(@NonNull ProgressEngine engine) {
+        this(engine, engine, engine.getMax(), engine.getScheduler());
+    }
+
+    private CompositeProgress(@NonNull ProgressAnimInterface target, @Nullable ProgressEngine engine, long max,
+                              @NonNull FrameScheduler scheduler) {
+        if (max <= 0) {
+            throw new IllegalArgumentException("max must be positive");
+        }
+        this.target = target;
+        this.engine = engine;
+        this.max = max;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 添加子任务，可在任意线程调用
+     *
+     * @param total  子任务总量，如分片字节数。数值需要大于0
+     * @param weight 权重。数值需要大于0，只有相对大小有意义。每单位权重折算为2^20个贡献值，
+     *               所有子任务的权重之和不能超过{@link #MAX_TOTAL_WEIGHT}，按字节数加权时应先折算为KB、MB等较大的单位
+     * @return 子任务
+     * @throws IllegalArgumentException 参数不合法，或加入后权重之和超过{@link #MAX_TOTAL_WEIGHT}
+     */
+    @NonNull
+    public Child newChild(@IntRange(from = 1) long total, double weight) {
+        if (total <= 0 || !(weight > 0)) {
+            throw new IllegalArgumentException("total and weight must be positive");
+        }
+        if (weight > MAX_TOTAL_WEIGHT) {
+            throw new IllegalArgumentException("weight exceeds MAX_TOTAL_WEIGHT: " + weight);
+        }
+        long units = Math.max(1L, Math.round(weight * WEIGHT_SCALE));
+        long current;
+        long next;
+        do {
+            current = totalUnits.get();
+            try {
+                next = Math.addExact(current, units);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("total weight exceeds MAX_TOTAL_WEIGHT", e);
+            }
+        } while (!totalUnits.compareAndSet(current, next));
+        Child child = new Child(total, units);
+        requestSample();
+        return child;
+    }
+
+    /**
+     * 获取当前完成比例，可在任意线程调用。并发更新时不保证是某一时刻的精确快照
+     *
+     * @return 完成比例，取值[0,1]
+     */
+    public double getFraction() {
+        long total = totalUnits.get();
+        return total > 0 ? Math.min(1d, (double) completedUnits.sum() / total) : 0d;
+    }
+
+    /**
+     * 停止采样，不再驱动进度动画
+     */
+    public void release() {
+        released = true;
+    }
+
+    /**
+     * 请求在下一帧采样。并发调用合并为至多一个待执行的帧线程任务
+     */
+    private void requestSample() {
+        if (pending.compareAndSet(false, true)) {
+            scheduler.post(wakeUp);
+        }
+    }
+
+    /**
+     * 加入帧回调
+     */
+    private void wakeUp() {
+        if (!ticking && !released) {
+            ticking = true;
+            scheduler.addFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * 采样一帧
+     *
+     * @param frameTimeNanos 帧时间(纳秒)
+     * @return 是否需要继续接收下一帧
+     */
+    private boolean doFrame(long frameTimeNanos) {
+        if (released) {
+            ticking = false;
+            return false;
+        }
+        // 先清除标记再读取，读取期间的更新会在下一帧采样
+        pending.set(false);
+        long progress = (long) (getFraction() * max);
+        if (progress != sampled) {
+            sampled = progress;
+            if (engine != null) {
+                engine.animateTo(progress);
+            } else {
+                target.animateTo((int) progress);
+            }
+        }
+        if (pending.get()) {
+            return true;
+        }
+        ticking = false;
+        return false;
+    }
+
+    /**
+     * 子任务
+     * <p>
+     * 贡献值由已完成量唯一确定，每次更新累加的增量首尾相消，多线程同时更新同一个子任务也不会产生误差。
+     */
+    public final class Child {
+        /**
+         * 子任务总量
+         */
+        private final long total;
+
+        /**
+         * 贡献值上限
+         */
+        private final long units;
+
+        /**
+         * 已完成量
+         */
+        private final AtomicLong done = new AtomicLong();
+
+        Child(long total, long units) {
+            this.total = total;
+            this.units = units;
+        }
+
+        /**
+         * 累加已完成量
+         *
+         * @param delta 增量
+         */
+        public void add(long delta) {
+            if (delta == 0) {
+                return;
+            }
+            long after = done.addAndGet(delta);
+            publish(after - delta, after);
+        }
+
+        /**
+         * 设置已完成量
+         *
+         * @param value 已完成量
+         */
+        public void set(long value) {
+            long before = done.getAndSet(value);
+            publish(before, value);
+        }
+
+        /**
+         * 标记为已完成
+         */
+        public void complete() {
+            set(total);
+        }
+
+        /**
+         * 获取已完成量
+         *
+         * @return 已完成量
+         */
+        public long get() {
+            return done.get();
+        }
+
+        /**
+         * 获取子任务总量
+         *
+         * @return 子任务总量
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * 累加贡献值的增量
+         *
+         * @param before 更新前的已完成量
+         * @param after  更新后的已完成量
+         */
+        private void publish(long before, long after) {
+            long delta = unitsOf(after) - unitsOf(before);
+            if (delta != 0) {
+                completedUnits.add(delta);
+                requestSample();
+            }
+        }
+
+        /**
+         * 已完成量折算为贡献值
+         *
+         * @param value 已完成量
+         * @return 贡献值，取值[0,units]
+         */
+        private long unitsOf(long value) {
+            if (value <= 0) {
+                return 0;
+            }
+            if (value >= total) {
+                return units;
+            }
+            return (long) ((double) value * units / total);
+        }
+    }
+}
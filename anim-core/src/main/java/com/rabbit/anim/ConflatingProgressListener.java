@@ -0,0 +1,162 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 合并投递的进度监听器
+ * <p>
+ * 在帧线程接收进度通知，通过{@link Executor}异步投递给目标监听器。
+ * 投递前只保留最新进度值，任务队列中至多有一个待执行的投递任务，不会积压；
+ * 投递串行执行，结束通知总在其对应的进度值之后投递。
+ */
+public final class ConflatingProgressListener implements ProgressAnimInterface.OnProgressChangeListener,
+        ProgressAnimInterface.OnLongProgressChangeListener, Runnable {
+    /**
+     * 目标监听器，int监听器经过适配
+     */
+    @NonNull
+    private final ProgressAnimInterface.OnLongProgressChangeListener delegate;
+
+    /**
+     * 投递线程
+     */
+    @NonNull
+    private final Executor executor;
+
+    /**
+     * 是否已提交投递任务
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * 最新进度值。由this保护
+     */
+    private long latest;
+
+    /**
+     * 最新完成比例。由this保护
+     */
+    private double latestFraction;
+
+    /**
+     * 是否有待投递的进度值。由this保护
+     */
+    private boolean valuePending;
+
+    /**
+     * 结束时的进度值。由this保护
+     */
+    private long finishValue;
+
+    /**
+     * 结束时的完成比例。由this保护
+     */
+    private double finishFraction;
+
+    /**
+     * 是否有待投递的结束通知。由this保护
+     */
+    private boolean finishPending;
+
+    public ConflatingProgressListener(@NonNull ProgressAnimInterface.OnProgressChangeListener delegate,
+                                      @NonNull Executor executor) {
+        this(IntProgressListenerAdapter.wrap(delegate), executor);
+    }
+
+    public ConflatingProgressListener(@NonNull ProgressAnimInterface.OnLongProgressChangeListener delegate,
+                                      @NonNull Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    /**
+     * 获取目标监听器
+     *
+     * @return 目标监听器，int监听器返回其64位适配
+     */
+    @NonNull
+    public ProgressAnimInterface.OnLongProgressChangeListener getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void onChange(int progress) {
+        onChange(progress, Double.NaN);
+    }
+
+    @Override
+    public void onChange(long progress, double fraction) {
+        synchronized (this) {
+            latest = progress;
+            latestFraction = fraction;
+            valuePending = true;
+        }
+        schedule();
+    }
+
+    @Override
+    public void onFinish() {
+        synchronized (this) {
+            // 结束通知携带其对应的进度值，之后的进度值另行投递
+            finishValue = latest;
+            finishFraction = latestFraction;
+            finishPending = true;
+            valuePending = false;
+        }
+        schedule();
+    }
+
+    /**
+     * 提交投递任务，已提交时不重复提交
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this);
+        }
+    }
+
+    /**
+     * 投递任务，在投递线程执行
+     */
+    @Override
+    public void run() {
+        for (; ; ) {
+            long value;
+            double fraction;
+            boolean deliverValue;
+            long finish;
+            double finishAt;
+            boolean deliverFinish;
+            synchronized (this) {
+                value = latest;
+                fraction = latestFraction;
+                deliverValue = valuePending;
+                finish = finishValue;
+                finishAt = finishFraction;
+                deliverFinish = finishPending;
+                valuePending = false;
+                finishPending = false;
+            }
+            if (deliverFinish) {
+                delegate.onChange(finish, finishAt);
+                delegate.onFinish();
+            }
+            if (deliverValue) {
+                delegate.onChange(value, fraction);
+            }
+            // 投递完成后才允许提交新任务，保证投递串行
+            scheduled.set(false);
+            synchronized (this) {
+                if (!valuePending && !finishPending) {
+                    return;
+                }
+            }
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 合并投递的进度流订阅
+ * <p>
+ * 帧线程写入最新进度值，有需求量时提交至多一个投递任务；采样间隔内的进度值暂存，
+ * 由帧回调在间隔到期时补发，保证最后一个进度值不会丢失。
+ */
+final class ConflatingSubscription implements ProgressStream.Subscription, FrameScheduler.FrameCallback, Runnable {
+    @NonNull
+    private final ProgressStream stream;
+
+    @NonNull
+    private final FrameScheduler scheduler;
+
+    @NonNull
+    private final ProgressStream.Subscriber subscriber;
+
+    @NonNull
+    private final Executor executor;
+
+    /**
+     * 采样间隔(纳秒)
+     */
+    private final long intervalNanos;
+
+    /**
+     * 未满足的需求量
+     */
+    private final AtomicLong demand = new AtomicLong();
+
+    /**
+     * 是否已提交投递任务
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * 是否已取消或终止
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * 是否待通知结束
+     */
+    private volatile boolean completePending;
+
+    /**
+     * 待投递的最新进度值。由this保护
+     */
+    private long latest;
+
+    /**
+     * 是否有待投递的进度值。由this保护
+     */
+    private boolean valuePending;
+
+    /**
+     * 上次放行的时间(纳秒)。仅帧线程读写
+     */
+    private long lastEmitNanos;
+
+    /**
+     * 是否放行过。仅帧线程读写
+     */
+    private boolean emitted;
+
+    /**
+     * 采样间隔内暂存的进度值。仅帧线程读写
+     */
+    private long held;
+
+    /**
+     * 是否有暂存的进度值。仅帧线程读写
+     */
+    private boolean holding;
+
+    /**
+     * 是否已加入补发帧回调。仅帧线程读写
+     */
+    private boolean ticking;
+
+    ConflatingSubscription(@NonNull ProgressStream stream, @NonNull FrameScheduler scheduler,
+                           @NonNull ProgressStream.Subscriber subscriber, @NonNull Executor executor,
+                           long intervalNanos) {
+        this.stream = stream;
+        this.scheduler = scheduler;
+        this.subscriber = subscriber;
+        this.executor = executor;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * 写入进度值。在帧线程调用
+     *
+     * @param progress 进度值
+     */
+    void offer(long progress) {
+        if (cancelled) {
+            return;
+        }
+        long now = scheduler.nanoTime();
+        if (intervalNanos > 0 && emitted && now - lastEmitNanos < intervalNanos) {
+            held = progress;
+            holding = true;
+            if (!ticking) {
+                ticking = true;
+                scheduler.addFrameCallback(this);
+            }
+            return;
+        }
+        emit(progress, now);
+    }
+
+    /**
+     * 补发采样间隔内暂存的进度值
+     */
+    @Override
+    public boolean doFrame(long frameTimeNanos) {
+        if (cancelled || !holding) {
+            ticking = false;
+            return false;
+        }
+        long now = scheduler.nanoTime();
+        if (now - lastEmitNanos < intervalNanos) {
+            return true;
+        }
+        emit(held, now);
+        ticking = false;
+        return false;
+    }
+
+    /**
+     * 放行进度值
+     *
+     * @param progress 进度值
+     * @param now      当前时间(纳秒)
+     */
+    private void emit(long progress, long now) {
+        lastEmitNanos = now;
+        emitted = true;
+        holding = false;
+        synchronized (this) {
+            latest = progress;
+            valuePending = true;
+        }
+        schedule();
+    }
+
+    /**
+     * 通知结束，已放行的进度值在结束前按需求量投递
+     */
+    void complete() {
+        completePending = true;
+        schedule();
+    }
+
+    @Override
+    public void request(long n) {
+        if (cancelled) {
+            return;
+        }
+        if (n <= 0) {
+            fail(new IllegalArgumentException("request must be positive: " + n));
+            return;
+        }
+        for (; ; ) {
+            long current = demand.get();
+            long next = current + n;
+            // 溢出时视为不限
+            if (next < 0) {
+                next = Long.MAX_VALUE;
+            }
+            if (demand.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * 是否已取消或终止
+     *
+     * @return 是否已取消
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        stream.remove(this);
+    }
+
+    /**
+     * 有可投递内容时提交投递任务，已提交时不重复提交
+     */
+    private void schedule() {
+        if (cancelled || !hasWork()) {
+            return;
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * 是否有可投递内容
+     */
+    private boolean hasWork() {
+        if (completePending) {
+            return true;
+        }
+        synchronized (this) {
+            return valuePending && demand.get() > 0;
+        }
+    }
+
+    /**
+     * 投递任务，在投递线程执行
+     */
+    @Override
+    public void run() {
+        for (; ; ) {
+            if (cancelled) {
+                return;
+            }
+            long value = 0;
+            boolean deliver = false;
+            synchronized (this) {
+                if (valuePending && demand.get() > 0) {
+                    value = latest;
+                    valuePending = false;
+                    deliver = true;
+                }
+            }
+            if (deliver) {
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                subscriber.onNext(value);
+            }
+            if (completePending && !cancelled) {
+                synchronized (this) {
+                    deliver = valuePending && demand.get() > 0;
+                }
+                if (!deliver) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+            }
+            // 投递完成后才允许提交新任务，保证投递串行
+            scheduled.set(false);
+            if (cancelled || !hasWork() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 异常终止
+     *
+     * @param throwable 异常
+     */
+    private void fail(@NonNull Throwable throwable) {
+        if (cancelled) {
+            return;
+        }
+        cancel();
+        subscriber.onError(throwable);
+    }
+}
@@ -0,0 +1,81 @@
+package com.rabbit.anim;
+
+/**
+ * 每帧监听器通知的时间预算
+ * <p>
+ * 通过Builder或{@link ProgressEngine#setFrameBudget(FrameBudget)}设置后，引擎按帧累计通知监听器的耗时：
+ * 高优先级监听器总会通知；预算用完后，本帧尚未通知的低优先级监听器推迟到之后的帧，合并为届时的最新进度值。
+ * 同一个实例可被同一帧线程上的多个引擎共享，预算按帧在这些引擎间累计，一个进度条的慢监听器不会让所有进度条一起超时。
+ * 仅在帧线程使用
+ */
+public final class FrameBudget {
+    /**
+     * 每帧预算(纳秒)
+     */
+    private final long budgetNanos;
+
+    /**
+     * 当前帧时间(纳秒)
+     */
+    private long frameTimeNanos;
+
+    /**
+     * 是否已开始计时
+     */
+    private boolean started;
+
+    /**
+     * 当前帧已用时间(纳秒)
+     */
+    private long spentNanos;
+
+    /**
+     * @param budgetNanos 每帧预算(纳秒)。数值需要大于0
+     */
+    public FrameBudget(long budgetNanos) {
+        if (budgetNanos <= 0) {
+            throw new IllegalArgumentException("budgetNanos must be positive: " + budgetNanos);
+        }
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * 获取每帧预算
+     *
+     * @return 每帧预算(纳秒)
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * 开始通知。帧时间变化时视为新的一帧，重新计时
+     *
+     * @param frameTimeNanos 帧时间(纳秒)
+     */
+    void begin(long frameTimeNanos) {
+        if (!started || frameTimeNanos != this.frameTimeNanos) {
+            started = true;
+            this.frameTimeNanos = frameTimeNanos;
+            spentNanos = 0;
+        }
+    }
+
+    /**
+     * 记录通知耗时
+     *
+     * @param nanos 耗时(纳秒)
+     */
+    void charge(long nanos) {
+        spentNanos += nanos;
+    }
+
+    /**
+     * 当前帧预算是否已用完
+     *
+     * @return 是否已用完
+     */
+    boolean isExhausted() {
+        return spentNanos >= budgetNanos;
+    }
+}
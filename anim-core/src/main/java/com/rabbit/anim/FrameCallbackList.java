@@ -0,0 +1,91 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 帧回调集合
+ * <p>
+ * 一次帧分发扇出到所有活动回调，返回false的回调被移出集合。
+ * 分发过程中允许添加、移除回调。非线程安全，仅限帧线程使用。
+ */
+public final class FrameCallbackList {
+    /**
+     * 活动帧回调
+     */
+    private FrameScheduler.FrameCallback[] callbacks = new FrameScheduler.FrameCallback[16];
+
+    /**
+     * 活动帧回调数量
+     */
+    private int size;
+
+    /**
+     * 添加帧回调
+     *
+     * @param callback 帧回调。调用方需保证不会重复添加
+     */
+    public void add(@NonNull FrameScheduler.FrameCallback callback) {
+        if (size == callbacks.length) {
+            FrameScheduler.FrameCallback[] grown = new FrameScheduler.FrameCallback[size << 1];
+            System.arraycopy(callbacks, 0, grown, 0, size);
+            callbacks = grown;
+        }
+        callbacks[size++] = callback;
+    }
+
+    /**
+     * 移除帧回调。空位在下一次分发时统一压缩
+     *
+     * @param callback 帧回调
+     */
+    public void remove(@NonNull FrameScheduler.FrameCallback callback) {
+        for (int i = 0; i < size; i++) {
+            if (callbacks[i] == callback) {
+                callbacks[i] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 获取活动帧回调数量（包含尚未压缩的空位）
+     *
+     * @return 活动帧回调数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 分发一帧
+     *
+     * @param frameTimeNanos 帧时间(纳秒)
+     * @return 分发后的活动帧回调数量
+     */
+    public int dispatch(long frameTimeNanos) {
+        int count = size;
+        int write = 0;
+        for (int read = 0; read < count; read++) {
+            FrameScheduler.FrameCallback callback = callbacks[read];
+            if (callback == null) {
+                continue;
+            }
+            // 帧回调内可能移除自身，仍在原位置才保留
+            if (callback.doFrame(frameTimeNanos) && callbacks[read] == callback) {
+                callbacks[write++] = callback;
+            }
+        }
+        // 分发过程中新增的回调追加在count之后，前移到压缩后的末尾
+        for (int read = count; read < size; read++) {
+            FrameScheduler.FrameCallback callback = callbacks[read];
+            if (callback != null) {
+                callbacks[write++] = callback;
+            }
+        }
+        for (int i = write; i < size; i++) {
+            callbacks[i] = null;
+        }
+        size = write;
+        return size;
+    }
+}
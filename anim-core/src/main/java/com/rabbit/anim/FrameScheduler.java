@@ -0,0 +1,51 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 帧调度器，为动画引擎提供时间源、帧回调与帧线程任务调度
+ * <p>
+ * Android上由主线程Choreographer实现，JVM上可使用{@link ManualFrameScheduler}确定性地驱动。
+ */
+public interface FrameScheduler {
+    /**
+     * 获取当前时间，与帧时间同一时间基准
+     *
+     * @return 当前时间(纳秒)
+     */
+    long nanoTime();
+
+    /**
+     * 在帧线程执行任务。可在任意线程调用
+     *
+     * @param runnable 任务
+     */
+    void post(@NonNull Runnable runnable);
+
+    /**
+     * 添加帧回调，此后每帧回调一次，直到回调返回false。仅限帧线程调用
+     *
+     * @param callback 帧回调。调用方需保证不会重复添加
+     */
+    void addFrameCallback(@NonNull FrameCallback callback);
+
+    /**
+     * 移除帧回调。仅限帧线程调用
+     *
+     * @param callback 帧回调
+     */
+    void removeFrameCallback(@NonNull FrameCallback callback);
+
+    /**
+     * 帧回调
+     */
+    interface FrameCallback {
+        /**
+         * 执行一帧
+         *
+         * @param frameTimeNanos 帧时间(纳秒)
+         * @return 是否需要继续接收下一帧
+         */
+        boolean doFrame(long frameTimeNanos);
+    }
+}
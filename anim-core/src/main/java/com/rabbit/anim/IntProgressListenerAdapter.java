@@ -0,0 +1,56 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+/**
+ * int进度监听器适配器
+ * <p>
+ * 引擎内部统一按64位通知，int监听器经此转换，超出int范围的进度值取{@link Integer#MAX_VALUE}。
+ */
+final class IntProgressListenerAdapter implements ProgressAnimInterface.OnLongProgressChangeListener {
+    /**
+     * int进度监听器
+     */
+    @NonNull
+    final ProgressAnimInterface.OnProgressChangeListener delegate;
+
+    IntProgressListenerAdapter(@NonNull ProgressAnimInterface.OnProgressChangeListener delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * 转换为64位进度监听器
+     *
+     * @param listener int进度监听器
+     * @return 64位进度监听器
+     */
+    @NonNull
+    static ProgressAnimInterface.OnLongProgressChangeListener wrap(
+            @NonNull ProgressAnimInterface.OnProgressChangeListener listener) {
+        // 合并投递的监听器本身支持64位通知
+        if (listener instanceof ProgressAnimInterface.OnLongProgressChangeListener) {
+            return (ProgressAnimInterface.OnLongProgressChangeListener) listener;
+        }
+        return new IntProgressListenerAdapter(listener);
+    }
+
+    /**
+     * 截断为int进度值
+     *
+     * @param progress 64位进度值
+     * @return int进度值
+     */
+    static int toInt(long progress) {
+        return progress > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) progress;
+    }
+
+    @Override
+    public void onChange(long progress, double fraction) {
+        delegate.onChange(toInt(progress));
+    }
+
+    @Override
+    public void onFinish() {
+        delegate.onFinish();
+    }
+}
@@ -0,0 +1,141 @@
+package com.rabbit.anim;
+
+/**
+ * 关键帧目标队列
+ * <p>
+ * 定长环形缓冲区，队列已满时按合并策略合并到队尾或丢弃最早的关键帧，不会无限增长。
+ * 非线程安全，仅限帧线程使用。
+ */
+final class KeyframeQueue {
+    /**
+     * 默认队列深度
+     */
+    static final int DEFAULT_DEPTH = 8;
+
+    /**
+     * 关键帧目标值
+     */
+    private long[] keyframes = new long[DEFAULT_DEPTH];
+
+    /**
+     * 队首下标
+     */
+    private int head;
+
+    /**
+     * 关键帧数量
+     */
+    private int size;
+
+    /**
+     * 合并策略
+     */
+    @ProgressAnimInterface.QueuePolicy
+    private int policy = ProgressAnimInterface.QUEUE_MERGE_LAST;
+
+    /**
+     * 设置队列深度与合并策略，清空已有关键帧
+     *
+     * @param depth  队列深度。数值需要大于0
+     * @param policy 合并策略
+     */
+    void configure(int depth, @ProgressAnimInterface.QueuePolicy int policy) {
+        if (depth > 0 && depth != keyframes.length) {
+            keyframes = new long[depth];
+        }
+        this.policy = policy;
+        clear();
+    }
+
+    /**
+     * 获取队列深度
+     *
+     * @return 队列深度
+     */
+    int getDepth() {
+        return keyframes.length;
+    }
+
+    /**
+     * 获取合并策略
+     *
+     * @return 合并策略
+     */
+    @ProgressAnimInterface.QueuePolicy
+    int getPolicy() {
+        return policy;
+    }
+
+    /**
+     * 追加关键帧。与队尾相同的目标被忽略
+     *
+     * @param target  关键帧目标值
+     * @param current 队列为空时与之比较的当前段结束值
+     */
+    void offer(long target, long current) {
+        int depth = keyframes.length;
+        if (size == 0) {
+            if (target == current) {
+                return;
+            }
+        } else {
+            int tail = (head + size - 1) % depth;
+            if (keyframes[tail] == target) {
+                return;
+            }
+            if (size == depth) {
+                if (policy == ProgressAnimInterface.QUEUE_MERGE_LAST) {
+                    keyframes[tail] = target;
+                    return;
+                }
+                // 丢弃最早的关键帧
+                head = (head + 1) % depth;
+                size--;
+            }
+        }
+        keyframes[(head + size) % depth] = target;
+        size++;
+    }
+
+    /**
+     * 取出队首关键帧。调用方需保证队列非空
+     *
+     * @return 关键帧目标值
+     */
+    long poll() {
+        long target = keyframes[head];
+        head = (head + 1) % keyframes.length;
+        size--;
+        return target;
+    }
+
+    /**
+     * 获取关键帧数量
+     *
+     * @return 关键帧数量
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * 按播放顺序复制待播放的关键帧
+     *
+     * @return 关键帧目标值
+     */
+    long[] toArray() {
+        long[] array = new long[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = keyframes[(head + i) % keyframes.length];
+        }
+        return array;
+    }
+
+    /**
+     * 清空关键帧
+     */
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,119 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 查找表插值器
+ * <p>
+ * 将任意插值器按固定分辨率预采样为float数组，计算时在相邻采样点之间线性插值，
+ * 避免逐帧调用开销较大的路径、弹跳等插值器。相同插值器、相同分辨率的查找表在实例间共享。
+ */
+public final class LookupTableInterpolator implements ProgressInterpolator {
+    /**
+     * 默认分辨率
+     */
+    public static final int DEFAULT_RESOLUTION = 256;
+
+    /**
+     * 查找表缓存。以插值器为弱引用键，值为分辨率到查找表插值器的映射。由自身保护
+     */
+    private static final Map<Object, Map<Integer, LookupTableInterpolator>> CACHE = new WeakHashMap<>();
+
+    /**
+     * 采样值，共resolution + 1个
+     */
+    private final float[] samples;
+
+    /**
+     * 分辨率，即采样区间数量
+     */
+    private final int resolution;
+
+    private LookupTableInterpolator(@NonNull float[] samples) {
+        this.samples = samples;
+        this.resolution = samples.length - 1;
+    }
+
+    /**
+     * 获取共享的查找表插值器
+     *
+     * @param key        缓存键，通常为原始插值器实例
+     * @param source     原始插值器
+     * @param resolution 分辨率。数值需要大于0
+     * @return 查找表插值器
+     */
+    @NonNull
+    public static LookupTableInterpolator of(@NonNull Object key, @NonNull ProgressInterpolator source, int resolution) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("resolution must be positive: " + resolution);
+        }
+        synchronized (CACHE) {
+            Map<Integer, LookupTableInterpolator> tables = CACHE.get(key);
+            if (tables == null) {
+                tables = new HashMap<>(2);
+                CACHE.put(key, tables);
+            }
+            LookupTableInterpolator table = tables.get(resolution);
+            if (table == null) {
+                table = bake(source, resolution);
+                tables.put(resolution, table);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * 获取共享的查找表插值器，以原始插值器实例为缓存键
+     *
+     * @param source     原始插值器
+     * @param resolution 分辨率。数值需要大于0
+     * @return 查找表插值器
+     */
+    @NonNull
+    public static LookupTableInterpolator of(@NonNull ProgressInterpolator source, int resolution) {
+        return of(source, source, resolution);
+    }
+
+    /**
+     * 预采样插值器，不使用缓存
+     *
+     * @param source     原始插值器
+     * @param resolution 分辨率。数值需要大于0
+     * @return 查找表插值器
+     */
+    @NonNull
+    public static LookupTableInterpolator bake(@NonNull ProgressInterpolator source, int resolution) {
+        float[] samples = new float[resolution + 1];
+        for (int i = 0; i <= resolution; i++) {
+            samples[i] = source.getInterpolation((float) i / resolution);
+        }
+        return new LookupTableInterpolator(samples);
+    }
+
+    /**
+     * 获取分辨率
+     *
+     * @return 分辨率
+     */
+    public int getResolution() {
+        return resolution;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (input <= 0f) {
+            return samples[0];
+        }
+        if (input >= 1f) {
+            return samples[resolution];
+        }
+        float position = input * resolution;
+        int index = (int) position;
+        float start = samples[index];
+        return start + (samples[index + 1] - start) * (position - index);
+    }
+}
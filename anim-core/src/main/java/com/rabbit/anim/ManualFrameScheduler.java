@@ -0,0 +1,143 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 手动驱动的帧调度器
+ * <p>
+ * 时间只随{@link #doFrame()}推进，用于在JVM上确定性地驱动动画引擎（单元测试、基准测试、回放）。
+ * 除{@link #post(Runnable)}、{@link #nanoTime()}外，其余方法由驱动线程（即帧线程）调用。
+ */
+public class ManualFrameScheduler implements FrameScheduler {
+    /**
+     * 默认帧间隔(纳秒)，即60Hz
+     */
+    public static final long DEFAULT_FRAME_INTERVAL_NANOS = 16_666_667L;
+
+    /**
+     * 待执行任务
+     */
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 帧回调集合
+     */
+    private final FrameCallbackList callbacks = new FrameCallbackList();
+
+    /**
+     * 帧间隔(纳秒)
+     */
+    private final long frameIntervalNanos;
+
+    /**
+     * 当前时间(纳秒)
+     */
+    private volatile long nowNanos;
+
+    public ManualFrameScheduler() {
+        this(DEFAULT_FRAME_INTERVAL_NANOS);
+    }
+
+    /**
+     * @param frameIntervalNanos 帧间隔(纳秒)。数值需要大于0
+     */
+    public ManualFrameScheduler(long frameIntervalNanos) {
+        if (frameIntervalNanos <= 0) {
+            throw new IllegalArgumentException("frameIntervalNanos must be positive: " + frameIntervalNanos);
+        }
+        this.frameIntervalNanos = frameIntervalNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nowNanos;
+    }
+
+    @Override
+    public void post(@NonNull Runnable runnable) {
+        tasks.add(runnable);
+    }
+
+    @Override
+    public void addFrameCallback(@NonNull FrameCallback callback) {
+        callbacks.add(callback);
+    }
+
+    @Override
+    public void removeFrameCallback(@NonNull FrameCallback callback) {
+        callbacks.remove(callback);
+    }
+
+    /**
+     * 执行所有待执行任务
+     *
+     * @return 执行的任务数量
+     */
+    public int runPendingTasks() {
+        int count = 0;
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 执行待执行任务后推进一帧并分发帧回调
+     *
+     * @return 分发后的活动帧回调数量
+     */
+    public int doFrame() {
+        runPendingTasks();
+        nowNanos += frameIntervalNanos;
+        return callbacks.dispatch(nowNanos);
+    }
+
+    /**
+     * 连续推进帧，直到经过指定时间
+     *
+     * @param durationNanos 推进时长(纳秒)
+     */
+    public void advance(long durationNanos) {
+        long end = nowNanos + durationNanos;
+        while (nowNanos < end) {
+            doFrame();
+        }
+    }
+
+    /**
+     * 连续推进帧，直到没有活动帧回调和待执行任务
+     *
+     * @param maxFrames 最多推进的帧数
+     * @return 实际推进的帧数
+     */
+    public int runUntilIdle(int maxFrames) {
+        int frames = 0;
+        while (frames < maxFrames && (callbacks.size() > 0 || !tasks.isEmpty())) {
+            doFrame();
+            frames++;
+        }
+        return frames;
+    }
+
+    /**
+     * 获取活动帧回调数量
+     *
+     * @return 活动帧回调数量
+     */
+    public int getFrameCallbackCount() {
+        return callbacks.size();
+    }
+
+    /**
+     * 获取帧间隔
+     *
+     * @return 帧间隔(纳秒)
+     */
+    public long getFrameIntervalNanos() {
+        return frameIntervalNanos;
+    }
+}
@@ -0,0 +1,461 @@
+package com.rabbit.anim;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 多通道进度动画引擎
+ * <p>
+ * 在同一个时钟、同一个帧回调上驱动多个进度通道，如播放进度与缓冲进度、下载进度与解压进度。
+ * 各通道状态按通道下标保存在数组中（结构数组布局），每帧一次遍历完成所有通道的插值，
+ * 并在一次回调中通知所有通道的进度值，开销与单个{@link ProgressEngine}相当。
+ * 新目标到达时从当前进度重新开始一段动画（即{@link ProgressAnimInterface#RETARGET_RESTART}）。
+ * <p>
+ * {@link #animateTo(int, long)}、{@link #animateOver(int, long)}、监听器注册可在任意线程调用，
+ * 所有通道的并发调用合并为至多一个待执行的帧线程任务；其余状态仅在帧线程读写。
+ * Android上可使用FrameDriver.getShared()作为帧调度器。
+ */
+public class MultiChannelProgressEngine {
+    /**
+     * float乘法的相对舍入误差，即float精度的半个ulp
+     */
+    private static final double FLOAT_ROUNDING = 0x1p-24;
+
+    private static final OnChannelsChangeListener[] NO_LISTENERS = new OnChannelsChangeListener[0];
+
+    /**
+     * 帧调度器
+     */
+    @NonNull
+    private final FrameScheduler scheduler;
+
+    /**
+     * 通道数量
+     */
+    private final int channelCount;
+
+    /**
+     * 各通道目标进度值。任意线程写入
+     */
+    private final AtomicLongArray targets;
+
+    /**
+     * 各通道目标进度上限
+     */
+    private final AtomicLongArray limits;
+
+    /**
+     * 是否有待执行的重定向请求，所有通道共用
+     */
+    private final AtomicBoolean retargetPending = new AtomicBoolean();
+
+    /**
+     * 各通道最大进度
+     */
+    private final long[] max;
+
+    /**
+     * 各通道当前进度值，通知时传给监听器
+     */
+    private final long[] progress;
+
+    /**
+     * 各通道完成比例，通知时传给监听器
+     */
+    private final double[] fractions;
+
+    /**
+     * 各通道动画开始进度值
+     */
+    private final long[] progressStart;
+
+    /**
+     * 各通道动画结束进度值
+     */
+    private final long[] progressEnd;
+
+    /**
+     * 各通道当前段动画开始帧时间(纳秒)
+     */
+    private final long[] segmentStartNanos;
+
+    /**
+     * 各通道当前段动画是否在执行
+     */
+    private final boolean[] segmentRunning;
+
+    /**
+     * 各通道本轮动画是否已通知结束
+     */
+    private final boolean[] finishDispatched;
+
+    /**
+     * 帧回调
+     */
+    private final FrameScheduler.FrameCallback frameCallback = this::doFrame;
+
+    /**
+     * 在帧线程加入帧回调
+     */
+    private final Runnable wakeUp = this::wakeUp;
+
+    /**
+     * 在帧线程移出帧回调
+     */
+    private final Runnable detach = this::detach;
+
+    /**
+     * 监听器Map，按注册顺序保存。由listenerMap保护
+     */
+    private final Map<String, OnChannelsChangeListener> listenerMap = new LinkedHashMap<>();
+
+    /**
+     * 监听器数组快照
+     */
+    private volatile OnChannelsChangeListener[] listeners = NO_LISTENERS;
+
+    /**
+     * 每段动画持续时间(纳秒)
+     */
+    private long durationNanos = 300_000_000L;
+
+    /**
+     * 插值器
+     */
+    @NonNull
+    private ProgressInterpolator interpolator = ProgressInterpolator.LINEAR;
+
+    /**
+     * 是否已加入帧回调
+     */
+    private boolean ticking;
+
+    /**
+     * 是否已释放
+     */
+    private volatile boolean released;
+
+    /**
+     * @param scheduler    帧调度器
+     * @param channelCount 通道数量。数值需要大于0
+     */
+    public MultiChannelProgressEngine(@NonNull FrameScheduler scheduler, @IntRange(from = 1) int channelCount) {
+        if (channelCount <= 0) {
+            throw new IllegalArgumentException("channelCount must be positive: " + channelCount);
+        }
+        this.scheduler = scheduler;
+        this.channelCount = channelCount;
+        targets = new AtomicLongArray(channelCount);
+        limits = new AtomicLongArray(channelCount);
+        max = new long[channelCount];
+        progress = new long[channelCount];
+        fractions = new double[channelCount];
+        progressStart = new long[channelCount];
+        progressEnd = new long[channelCount];
+        segmentStartNanos = new long[channelCount];
+        segmentRunning = new boolean[channelCount];
+        finishDispatched = new boolean[channelCount];
+        for (int i = 0; i < channelCount; i++) {
+            setMax(i, 100);
+        }
+    }
+
+    /**
+     * 获取通道数量
+     *
+     * @return 通道数量
+     */
+    public int getChannelCount() {
+        return channelCount;
+    }
+
+    /**
+     * 设置通道最大进度。仅在动画开始前调用
+     *
+     * @param channel 通道下标
+     * @param max     最大进度
+     */
+    public void setMax(int channel, @IntRange(from = 0) long max) {
+        this.max[channel] = max;
+        limits.set(channel, max);
+    }
+
+    /**
+     * 获取通道最大进度
+     *
+     * @param channel 通道下标
+     * @return 最大进度
+     */
+    public long getMax(int channel) {
+        return max[channel];
+    }
+
+    /**
+     * 设置每段动画时长，所有通道共用
+     *
+     * @param timeMillis 动画时长(毫秒)
+     */
+    public void setDuration(long timeMillis) {
+        this.durationNanos = timeMillis * 1_000_000L;
+    }
+
+    /**
+     * 设置动画插值器，所有通道共用
+     *
+     * @param interpolator 动画插值器
+     */
+    public void setInterpolator(@NonNull ProgressInterpolator interpolator) {
+        this.interpolator = interpolator;
+    }
+
+    /**
+     * 获取通道当前进度值。仅限帧线程调用
+     *
+     * @param channel 通道下标
+     * @return 当前进度值
+     */
+    public long getProgress(int channel) {
+        return progress[channel];
+    }
+
+    /**
+     * 获取通道精确的完成比例。仅限帧线程调用
+     *
+     * @param channel 通道下标
+     * @return 完成比例
+     */
+    public double getFraction(int channel) {
+        return fractions[channel];
+    }
+
+    /**
+     * 获取通道最新目标进度值
+     *
+     * @param channel 通道下标
+     * @return 目标进度值
+     */
+    public long getTarget(int channel) {
+        return targets.get(channel);
+    }
+
+    /**
+     * 是否正在接收帧回调。仅限帧线程调用
+     *
+     * @return 是否正在执行动画
+     */
+    public boolean isRunning() {
+        return ticking;
+    }
+
+    /**
+     * 通道动画到指定进度值，可在任意线程调用
+     *
+     * @param channel   通道下标
+     * @param animateTo 目标进度值，限制在[0,最大进度]内
+     */
+    public void animateTo(int channel, long animateTo) {
+        targets.set(channel, Math.max(0L, Math.min(animateTo, limits.get(channel))));
+        requestRetarget();
+    }
+
+    /**
+     * 在通道最新目标进度值基础上增加指定进度，可在任意线程调用，并发调用的增量不会丢失
+     *
+     * @param channel     通道下标
+     * @param animateOver 增加的进度值
+     */
+    public void animateOver(int channel, long animateOver) {
+        long limit = limits.get(channel);
+        for (; ; ) {
+            long current = targets.get(channel);
+            long next = Math.max(0L, Math.min(current + animateOver, limit));
+            if (targets.compareAndSet(channel, current, next)) {
+                break;
+            }
+        }
+        requestRetarget();
+    }
+
+    /**
+     * 请求重定向。所有通道的并发调用合并为至多一个待执行的帧线程任务
+     */
+    private void requestRetarget() {
+        if (retargetPending.compareAndSet(false, true)) {
+            scheduler.post(wakeUp);
+        }
+    }
+
+    /**
+     * 加入帧回调
+     */
+    private void wakeUp() {
+        if (!ticking && !released) {
+            ticking = true;
+            scheduler.addFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * 移出帧回调
+     */
+    private void detach() {
+        if (ticking) {
+            ticking = false;
+            scheduler.removeFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * 执行一帧：一次遍历完成所有通道的重定向与插值，至多通知一次
+     *
+     * @param frameTimeNanos 帧时间(纳秒)
+     * @return 是否需要继续接收下一帧
+     */
+    private boolean doFrame(long frameTimeNanos) {
+        if (released) {
+            ticking = false;
+            return false;
+        }
+        // 先清除标记再读取，保证之后的更新会再次发起请求
+        boolean retarget = retargetPending.getAndSet(false);
+        float fraction = durationNanos > 0 ? 0f : 1f;
+        boolean changed = false;
+        boolean running = false;
+        for (int i = 0; i < channelCount; i++) {
+            if (retarget) {
+                long end = targets.get(i);
+                if (end != progressEnd[i]) {
+                    progressStart[i] = progress[i];
+                    progressEnd[i] = end;
+                    segmentStartNanos[i] = frameTimeNanos;
+                    segmentRunning[i] = true;
+                    finishDispatched[i] = false;
+                }
+            }
+            if (!segmentRunning[i]) {
+                continue;
+            }
+            if (durationNanos > 0) {
+                fraction = Math.min(1f, (float) (frameTimeNanos - segmentStartNanos[i]) / durationNanos);
+            }
+            double position = positionAt(i, fraction);
+            progress[i] = (long) position;
+            fractions[i] = max[i] > 0 ? position / max[i] : 1d;
+            if (fraction >= 1f) {
+                segmentRunning[i] = false;
+            } else {
+                running = true;
+            }
+            changed = true;
+        }
+        if (changed) {
+            dispatch();
+        }
+        if (!running && !retargetPending.get()) {
+            ticking = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 计算通道在指定时间进度的位置
+     *
+     * @param channel  通道下标
+     * @param fraction 时间进度，取值[0,1]
+     * @return 进度值（精确值）
+     */
+    private double positionAt(int channel, float fraction) {
+        double offset = (double) interpolator.getInterpolation(fraction) * (progressEnd[channel] - progressStart[channel]);
+        // 插值结果只有float精度，与整数相差在其舍入误差内时按整数处理，避免截断到前一个整数
+        double rounded = Math.rint(offset);
+        if (Math.abs(offset - rounded) <= Math.abs(offset) * FLOAT_ROUNDING) {
+            offset = rounded;
+        }
+        return progressStart[channel] + offset;
+    }
+
+    /**
+     * 通知所有监听器，到达最大进度的通道每轮只通知一次结束
+     */
+    private void dispatch() {
+        OnChannelsChangeListener[] array = listeners;
+        for (OnChannelsChangeListener listener : array) {
+            listener.onChange(progress, fractions);
+        }
+        for (int i = 0; i < channelCount; i++) {
+            if (progress[i] == max[i] && !finishDispatched[i]) {
+                finishDispatched[i] = true;
+                for (OnChannelsChangeListener listener : array) {
+                    listener.onFinish(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * 注册多通道进度监听器。相同key的监听器会被替换
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     */
+    public void registerOnChannelsChangeListener(@NonNull String key, @NonNull OnChannelsChangeListener listener) {
+        synchronized (listenerMap) {
+            listenerMap.put(key, listener);
+            listeners = listenerMap.values().toArray(NO_LISTENERS);
+        }
+    }
+
+    /**
+     * 取消注册多通道进度监听器
+     * 若key为null，则取消注册所有的监听器
+     *
+     * @param key 键
+     */
+    public void unregisterOnChannelsChangeListener(@Nullable String key) {
+        synchronized (listenerMap) {
+            if (key == null) {
+                listenerMap.clear();
+            } else {
+                listenerMap.remove(key);
+            }
+            listeners = listenerMap.values().toArray(NO_LISTENERS);
+        }
+    }
+
+    /**
+     * 释放资源
+     */
+    public void release() {
+        released = true;
+        unregisterOnChannelsChangeListener(null);
+        scheduler.post(detach);
+    }
+
+    /**
+     * 多通道进度监听器
+     */
+    public interface OnChannelsChangeListener {
+        /**
+         * 任一通道进度值变化，每帧至多一次
+         * 数组按通道下标保存各通道的值，由引擎复用，只能在回调内读取，不能修改或保存引用
+         *
+         * @param progress  各通道当前进度值
+         * @param fractions 各通道精确的完成比例
+         */
+        void onChange(@NonNull long[] progress, @NonNull double[] fractions);
+
+        /**
+         * 通道进度值到达最大进度，每轮动画只通知一次
+         *
+         * @param channel 通道下标
+         */
+        void onFinish(int channel);
+    }
+}
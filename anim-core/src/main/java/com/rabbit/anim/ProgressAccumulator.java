@@ -0,0 +1,102 @@
+package com.rabbit.anim;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁目标进度累加器
+ * <p>
+ * 任意线程通过CAS更新目标进度，并合并为至多一个待执行的重定向请求，
+ * 由主线程消费最新目标值。
+ */
+final class ProgressAccumulator {
+    /**
+     * 目标进度值
+     */
+    private final AtomicLong target = new AtomicLong();
+
+    /**
+     * 是否有待执行的重定向请求
+     */
+    private final AtomicBoolean retargetPending = new AtomicBoolean();
+
+    /**
+     * 目标进度上限
+     */
+    private volatile long max = Long.MAX_VALUE;
+
+    /**
+     * 设置目标进度上限
+     *
+     * @param max 目标进度上限
+     */
+    void setMax(long max) {
+        this.max = max;
+    }
+
+    /**
+     * 设置目标进度
+     *
+     * @param value 目标进度值，限制在[0,上限]内
+     * @return 设置后的目标进度值
+     */
+    long set(long value) {
+        long next = Math.max(0L, Math.min(value, max));
+        target.set(next);
+        return next;
+    }
+
+    /**
+     * 累加目标进度，不会丢失并发的增量。结果限制在[0,上限]内
+     *
+     * @param delta 增量
+     * @return 累加后的目标进度值
+     */
+    long add(long delta) {
+        long limit = max;
+        for (; ; ) {
+            long current = target.get();
+            long next = Math.max(0L, Math.min(current + delta, limit));
+            if (target.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 获取当前目标进度值
+     *
+     * @return 目标进度值
+     */
+    long get() {
+        return target.get();
+    }
+
+    /**
+     * 请求重定向
+     *
+     * @return 是否需要调用方调度重定向任务。已有待执行的请求时返回false
+     */
+    boolean requestRetarget() {
+        return retargetPending.compareAndSet(false, true);
+    }
+
+    /**
+     * 是否有待执行的重定向请求
+     *
+     * @return 是否有待执行的重定向请求
+     */
+    boolean isRetargetPending() {
+        return retargetPending.get();
+    }
+
+    /**
+     * 消费重定向请求并获取最新目标值。先清除标记再读取，保证之后的更新会再次发起请求
+     *
+     * @return 最新目标进度值
+     */
+    long consumeTarget() {
+        retargetPending.set(false);
+        return target.get();
+    }
+}
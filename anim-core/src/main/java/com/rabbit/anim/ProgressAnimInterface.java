@@ -0,0 +1,171 @@
+package com.rabbit.anim;
+
+import androidx.annotation.IntDef;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Created by RabbitFeng on 2022/2/8
+ */
+public interface ProgressAnimInterface {
+    /**
+     * 每帧通知进度变化
+     */
+    int DISPATCH_EVERY_FRAME = 0;
+
+    /**
+     * 仅在量化后的进度值变化时通知
+     */
+    int DISPATCH_ON_CHANGE = 1;
+
+    @IntDef({DISPATCH_EVERY_FRAME, DISPATCH_ON_CHANGE})
+    @Retention(RetentionPolicy.SOURCE)
+    @interface DispatchMode {
+    }
+
+    /**
+     * 新目标到达时从当前进度重新开始一段动画
+     */
+    int RETARGET_RESTART = 0;
+
+    /**
+     * 新目标作为关键帧追加到队列，当前段结束后连续播放下一段，不重新开始计时
+     */
+    int RETARGET_QUEUE = 1;
+
+    /**
+     * 新目标到达时保持当前速度，在同一时钟上平滑过渡到新目标
+     */
+    int RETARGET_VELOCITY = 2;
+
+    @IntDef({RETARGET_RESTART, RETARGET_QUEUE, RETARGET_VELOCITY})
+    @Retention(RetentionPolicy.SOURCE)
+    @interface RetargetMode {
+    }
+
+    /**
+     * 关键帧队列已满时，新目标合并到队尾关键帧
+     */
+    int QUEUE_MERGE_LAST = 0;
+
+    /**
+     * 关键帧队列已满时，丢弃最早的待播放关键帧
+     */
+    int QUEUE_DROP_OLDEST = 1;
+
+    @IntDef({QUEUE_MERGE_LAST, QUEUE_DROP_OLDEST})
+    @Retention(RetentionPolicy.SOURCE)
+    @interface QueuePolicy {
+    }
+
+    /**
+     * 每段动画使用固定时长
+     */
+    int DURATION_FIXED = 0;
+
+    /**
+     * 每段动画时长跟随目标进度的平均到达间隔，使动画与进度来源同步
+     */
+    int DURATION_ADAPTIVE = 1;
+
+    @IntDef({DURATION_FIXED, DURATION_ADAPTIVE})
+    @Retention(RetentionPolicy.SOURCE)
+    @interface DurationMode {
+    }
+
+    /**
+     * 高优先级监听器，如绘制进度的UI监听器，每帧总会通知
+     */
+    int PRIORITY_HIGH = 0;
+
+    /**
+     * 低优先级监听器，如文本、日志等，设置{@link FrameBudget}后，预算用完时推迟到之后的帧，合并为最新进度值
+     */
+    int PRIORITY_LOW = 1;
+
+    @IntDef({PRIORITY_HIGH, PRIORITY_LOW})
+    @Retention(RetentionPolicy.SOURCE)
+    @interface ListenerPriority {
+    }
+
+    /**
+     * 执行动画到指定进度值。线程安全
+     *
+     * @param animateTo 进度值
+     */
+    void animateTo(int animateTo);
+
+    /**
+     * 执行动画经过指定进度值。线程安全，并发调用的增量不会丢失
+     *
+     * @param animateOver 进度值
+     */
+    void animateOver(int animateOver);
+
+    /**
+     * 释放资源
+     */
+    void release();
+
+    /**
+     * 进度监听器
+     */
+    interface OnProgressChangeListener {
+        /**
+         * 进度值变化
+         *
+         * @param progress 当前进度值
+         */
+        void onChange(int progress);
+
+        /**
+         * 进度值动画结束
+         */
+        void onFinish();
+    }
+
+    /**
+     * 64位进度监听器
+     * <p>
+     * 进度值不截断为int，并附带精确的完成比例，参数均为基本类型，逐帧通知不产生装箱
+     */
+    interface OnLongProgressChangeListener {
+        /**
+         * 进度值变化
+         *
+         * @param progress 当前进度值
+         * @param fraction 精确的完成比例，即未截断的进度/最大进度，具有小于1个进度单位的分辨率
+         */
+        void onChange(long progress, double fraction);
+
+        /**
+         * 进度值动画结束
+         */
+        void onFinish();
+    }
+
+    /**
+     * 注册进度监听器
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     */
+    void registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener listener);
+
+    /**
+     * 取消注册进度监听器
+     * 若key为null，则取消注册所有的进度监听器
+     *
+     * @param key 键。
+     */
+    void unregisterOnProgressListener(@Nullable String key);
+
+    /**
+     * 取消注册所有的进度监听器
+     */
+    void unregisterAllOnProgressListener();
+
+}
@@ -0,0 +1,326 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进度动画运行指标
+ * <p>
+ * 通过Builder设置后开启统计，未设置时引擎只做一次null判断，不产生额外开销。
+ * 同一个实例可以被多个ProgressAnim共享，汇总统计；监听器耗时按监听器Key汇总。
+ * 任意线程可调用{@link #snapshot()}导出。
+ */
+public final class ProgressAnimMetrics {
+    /**
+     * 通知了监听器的帧数
+     */
+    final StripedCounter framesDispatched = new StripedCounter();
+
+    /**
+     * 被过滤、未通知监听器的帧数
+     */
+    final StripedCounter framesSkipped = new StripedCounter();
+
+    /**
+     * animateTo调用次数
+     */
+    final StripedCounter animateToCalls = new StripedCounter();
+
+    /**
+     * animateOver调用次数
+     */
+    final StripedCounter animateOverCalls = new StripedCounter();
+
+    /**
+     * 实际提交到帧线程的任务数
+     */
+    final StripedCounter postsExecuted = new StripedCounter();
+
+    /**
+     * 被合并、未提交的请求数
+     */
+    final StripedCounter postsCoalesced = new StripedCounter();
+
+    /**
+     * 动画重新开始次数
+     */
+    final StripedCounter restarts = new StripedCounter();
+
+    /**
+     * 监听器通知总耗时(纳秒)
+     */
+    final StripedCounter dispatchNanos = new StripedCounter();
+
+    /**
+     * 因帧预算用完被推迟的低优先级监听器通知次数
+     */
+    final StripedCounter listenersDeferred = new StripedCounter();
+
+    /**
+     * 帧预算用完、推迟了监听器的帧数
+     */
+    final StripedCounter framesOverBudget = new StripedCounter();
+
+    /**
+     * 各监听器耗时
+     */
+    private final ConcurrentHashMap<String, ListenerTimer> listenerTimers = new ConcurrentHashMap<>();
+
+    /**
+     * 开始统计的时间(纳秒)
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * 清零次数。引擎据此判断缓存的监听器计时器是否失效
+     */
+    private volatile int generation;
+
+    /**
+     * 获取清零次数
+     *
+     * @return 清零次数
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * 获取监听器Key对应的计时器
+     *
+     * @param keys 监听器Key
+     * @return 与keys一一对应的计时器
+     */
+    @NonNull
+    ListenerTimer[] resolveTimers(@NonNull String[] keys) {
+        ListenerTimer[] timers = new ListenerTimer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            ListenerTimer timer = listenerTimers.get(keys[i]);
+            if (timer == null) {
+                ListenerTimer created = new ListenerTimer();
+                timer = listenerTimers.putIfAbsent(keys[i], created);
+                if (timer == null) {
+                    timer = created;
+                }
+            }
+            timers[i] = timer;
+        }
+        return timers;
+    }
+
+    /**
+     * 导出当前指标快照
+     *
+     * @return 指标快照
+     */
+    @NonNull
+    public Snapshot snapshot() {
+        Map<String, ListenerStats> listeners = new LinkedHashMap<>();
+        for (Map.Entry<String, ListenerTimer> entry : listenerTimers.entrySet()) {
+            ListenerTimer timer = entry.getValue();
+            listeners.put(entry.getKey(), new ListenerStats(timer.calls.sum(), timer.totalNanos.sum(), timer.maxNanos));
+        }
+        return new Snapshot(this, System.nanoTime() - startNanos, listeners);
+    }
+
+    /**
+     * 清零所有指标
+     */
+    public void reset() {
+        framesDispatched.reset();
+        framesSkipped.reset();
+        animateToCalls.reset();
+        animateOverCalls.reset();
+        postsExecuted.reset();
+        postsCoalesced.reset();
+        restarts.reset();
+        dispatchNanos.reset();
+        listenersDeferred.reset();
+        framesOverBudget.reset();
+        listenerTimers.clear();
+        generation++;
+    }
+
+    /**
+     * 单个监听器Key的计时器
+     */
+    static final class ListenerTimer {
+        final StripedCounter calls = new StripedCounter(2);
+        final StripedCounter totalNanos = new StripedCounter(2);
+        volatile long maxNanos;
+
+        /**
+         * 记录一次通知耗时
+         *
+         * @param nanos 耗时(纳秒)
+         */
+        void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos) {
+                // 仅用于统计，不同帧线程并发写入时允许丢失个别最大值
+                maxNanos = nanos;
+            }
+        }
+    }
+
+    /**
+     * 单个监听器Key的耗时统计
+     */
+    public static final class ListenerStats {
+        /**
+         * 通知次数
+         */
+        public final long calls;
+
+        /**
+         * 累计耗时(纳秒)
+         */
+        public final long totalNanos;
+
+        /**
+         * 单次最大耗时(纳秒)
+         */
+        public final long maxNanos;
+
+        ListenerStats(long calls, long totalNanos, long maxNanos) {
+            this.calls = calls;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "{calls=" + calls + ", totalNanos=" + totalNanos + ", maxNanos=" + maxNanos + '}';
+        }
+    }
+
+    /**
+     * 指标快照
+     */
+    public static final class Snapshot {
+        /**
+         * 统计时长(纳秒)，用于计算调用频率
+         */
+        public final long elapsedNanos;
+
+        /**
+         * 通知了监听器的帧数
+         */
+        public final long framesDispatched;
+
+        /**
+         * 被过滤、未通知监听器的帧数
+         */
+        public final long framesSkipped;
+
+        /**
+         * animateTo调用次数
+         */
+        public final long animateToCalls;
+
+        /**
+         * animateOver调用次数
+         */
+        public final long animateOverCalls;
+
+        /**
+         * 实际提交到帧线程的任务数
+         */
+        public final long postsExecuted;
+
+        /**
+         * 被合并、未提交的请求数
+         */
+        public final long postsCoalesced;
+
+        /**
+         * 动画重新开始次数
+         */
+        public final long restarts;
+
+        /**
+         * 监听器通知总耗时(纳秒)
+         */
+        public final long dispatchNanos;
+
+        /**
+         * 因帧预算用完被推迟的低优先级监听器通知次数
+         */
+        public final long listenersDeferred;
+
+        /**
+         * 帧预算用完、推迟了监听器的帧数
+         */
+        public final long framesOverBudget;
+
+        /**
+         * 各监听器Key的耗时统计
+         */
+        @NonNull
+        public final Map<String, ListenerStats> listeners;
+
+        Snapshot(@NonNull ProgressAnimMetrics metrics, long elapsedNanos, @NonNull Map<String, ListenerStats> listeners) {
+            this.elapsedNanos = elapsedNanos;
+            this.framesDispatched = metrics.framesDispatched.sum();
+            this.framesSkipped = metrics.framesSkipped.sum();
+            this.animateToCalls = metrics.animateToCalls.sum();
+            this.animateOverCalls = metrics.animateOverCalls.sum();
+            this.postsExecuted = metrics.postsExecuted.sum();
+            this.postsCoalesced = metrics.postsCoalesced.sum();
+            this.restarts = metrics.restarts.sum();
+            this.dispatchNanos = metrics.dispatchNanos.sum();
+            this.listenersDeferred = metrics.listenersDeferred.sum();
+            this.framesOverBudget = metrics.framesOverBudget.sum();
+            this.listeners = Collections.unmodifiableMap(listeners);
+        }
+
+        /**
+         * 计算animateTo、animateOver的调用频率
+         *
+         * @return 每秒调用次数
+         */
+        public double getCallRatePerSecond() {
+            return elapsedNanos > 0 ? (animateToCalls + animateOverCalls) * 1e9 / elapsedNanos : 0;
+        }
+
+        /**
+         * 导出为Key-Value形式，便于接入自有监控
+         *
+         * @return 指标Map
+         */
+        @NonNull
+        public Map<String, Long> toMap() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            map.put("elapsedNanos", elapsedNanos);
+            map.put("framesDispatched", framesDispatched);
+            map.put("framesSkipped", framesSkipped);
+            map.put("animateToCalls", animateToCalls);
+            map.put("animateOverCalls", animateOverCalls);
+            map.put("postsExecuted", postsExecuted);
+            map.put("postsCoalesced", postsCoalesced);
+            map.put("restarts", restarts);
+            map.put("dispatchNanos", dispatchNanos);
+            map.put("listenersDeferred", listenersDeferred);
+            map.put("framesOverBudget", framesOverBudget);
+            for (Map.Entry<String, ListenerStats> entry : listeners.entrySet()) {
+                ListenerStats stats = entry.getValue();
+                map.put("listener." + entry.getKey() + ".calls", stats.calls);
+                map.put("listener." + entry.getKey() + ".totalNanos", stats.totalNanos);
+                map.put("listener." + entry.getKey() + ".maxNanos", stats.maxNanos);
+            }
+            return map;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "ProgressAnimMetrics" + toMap();
+        }
+    }
+}
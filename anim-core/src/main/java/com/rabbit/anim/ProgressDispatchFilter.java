@@ -0,0 +1,168 @@
+package com.rabbit.anim;
+
+/**
+ * 进度通知过滤器
+ * <p>
+ * 按量化步长、最小可见变化量与最大通知频率判断当前帧是否需要通知监听器，
+ * 不会改变显示结果的帧不通知。每段动画的最终值、动画结束总会通知。
+ */
+final class ProgressDispatchFilter {
+    /**
+     * 是否仅在量化值变化时通知
+     */
+    private boolean onChangeOnly;
+
+    /**
+     * 量化步长
+     */
+    private float step = 1f;
+
+    /**
+     * 最小可见变化量（进度单位）。为0时不限制
+     */
+    private float minDelta;
+
+    /**
+     * 每秒最多通知次数。为0时不限制
+     */
+    private int maxUpdateRate;
+
+    /**
+     * 相邻两次通知的最小间隔(纳秒)。为0时不限制
+     */
+    private long minIntervalNanos;
+
+    /**
+     * 是否已通知过
+     */
+    private boolean dispatched;
+
+    /**
+     * 上次通知的量化值
+     */
+    private long lastBucket;
+
+    /**
+     * 上次通知的进度值
+     */
+    private long lastProgress;
+
+    /**
+     * 上次通知的帧时间(纳秒)
+     */
+    private long lastDispatchNanos;
+
+    /**
+     * 设置是否仅在量化值变化时通知
+     *
+     * @param onChangeOnly 为false时每帧通知
+     */
+    void setOnChangeOnly(boolean onChangeOnly) {
+        this.onChangeOnly = onChangeOnly;
+    }
+
+    /**
+     * 设置量化步长
+     *
+     * @param step 量化步长。数值需要大于0
+     */
+    void setStep(float step) {
+        if (step > 0) {
+            this.step = step;
+        }
+    }
+
+    /**
+     * 设置最小可见变化量，与上次通知的进度值相差不足时不通知
+     *
+     * @param minDelta 最小可见变化量（进度单位）。为0时不限制
+     */
+    void setMinDelta(float minDelta) {
+        this.minDelta = Math.max(0f, minDelta);
+    }
+
+    /**
+     * 设置最大通知频率
+     *
+     * @param updatesPerSecond 每秒最多通知次数。为0时不限制
+     */
+    void setMaxUpdateRate(int updatesPerSecond) {
+        this.maxUpdateRate = Math.max(0, updatesPerSecond);
+        this.minIntervalNanos = updatesPerSecond > 0 ? 1_000_000_000L / updatesPerSecond : 0L;
+    }
+
+    /**
+     * 是否仅在量化值变化时通知
+     *
+     * @return 是否仅在量化值变化时通知
+     */
+    boolean isOnChangeOnly() {
+        return onChangeOnly;
+    }
+
+    /**
+     * 获取量化步长
+     *
+     * @return 量化步长
+     */
+    float getStep() {
+        return step;
+    }
+
+    /**
+     * 获取最小可见变化量
+     *
+     * @return 最小可见变化量（进度单位）
+     */
+    float getMinDelta() {
+        return minDelta;
+    }
+
+    /**
+     * 获取最大通知频率
+     *
+     * @return 每秒最多通知次数。为0时不限制
+     */
+    int getMaxUpdateRate() {
+        return maxUpdateRate;
+    }
+
+    /**
+     * 清除通知记录，下一次判断总会通知
+     */
+    void reset() {
+        dispatched = false;
+    }
+
+    /**
+     * 判断当前帧是否需要通知，需要通知时记录本次进度值
+     *
+     * @param progress       当前进度值
+     * @param frameTimeNanos 帧时间(纳秒)
+     * @param segmentEnd     是否为当前段动画的最后一帧
+     * @param isFinish       是否需要通知动画结束
+     * @return 是否需要通知监听器
+     */
+    boolean accept(long progress, long frameTimeNanos, boolean segmentEnd, boolean isFinish) {
+        if (!onChangeOnly && minDelta == 0f && minIntervalNanos == 0L) {
+            return true;
+        }
+        long bucket = (long) Math.floor(progress / (double) step);
+        if (dispatched && !isFinish && !(segmentEnd && progress != lastProgress)) {
+            if (onChangeOnly && bucket == lastBucket) {
+                return false;
+            }
+            if (Math.abs(progress - lastProgress) < minDelta) {
+                return false;
+            }
+            if (frameTimeNanos - lastDispatchNanos < minIntervalNanos) {
+                return false;
+            }
+        }
+        dispatched = true;
+        lastBucket = bucket;
+        lastProgress = progress;
+        lastDispatchNanos = frameTimeNanos;
+        return true;
+    }
+}
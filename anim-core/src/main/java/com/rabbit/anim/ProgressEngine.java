@@ -0,0 +1,1239 @@
+package com.rabbit.anim;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * 进度动画引擎
+ * <p>
+ * 与平台无关的插值、重定向与监听器通知逻辑，由{@link FrameScheduler}提供时间与帧回调。
+ * 进度以64位整数表示，int接口是其视图；{@link OnLongProgressChangeListener}还可获得精确的完成比例。
+ * {@link #animateTo(int)}、{@link #animateOver(int)}、监听器注册可在任意线程调用，
+ * 其余状态仅在帧线程读写。
+ */
+public class ProgressEngine implements ProgressAnimInterface {
+    /**
+     * 数值求导步长
+     */
+    private static final float TANGENT_STEP = 1e-3f;
+
+    /**
+     * float乘法的相对舍入误差，即float精度的半个ulp
+     */
+    private static final double FLOAT_ROUNDING = 0x1p-24;
+
+    /**
+     * 默认自适应时长下限(纳秒)
+     */
+    private static final long DEFAULT_MIN_ADAPTIVE_DURATION_NANOS = 100_000_000L;
+
+    /**
+     * 默认自适应时长上限(纳秒)
+     */
+    private static final long DEFAULT_MAX_ADAPTIVE_DURATION_NANOS = 3_000_000_000L;
+
+    /**
+     * 帧调度器
+     */
+    @NonNull
+    private final FrameScheduler scheduler;
+
+    /**
+     * 进度监听器
+     */
+    private final ProgressListenerArray listeners = new ProgressListenerArray();
+
+    /**
+     * 目标进度累加器。任意线程写入，帧线程每帧至多消费一次
+     */
+    private final ProgressAccumulator accumulator = new ProgressAccumulator();
+
+    /**
+     * 进度通知过滤器
+     */
+    private final ProgressDispatchFilter dispatchFilter = new ProgressDispatchFilter();
+
+    /**
+     * 关键帧队列，仅{@link #RETARGET_QUEUE}时使用
+     */
+    private final KeyframeQueue keyframes = new KeyframeQueue();
+
+    /**
+     * 帧回调
+     */
+    private final FrameScheduler.FrameCallback frameCallback = this::doFrame;
+
+    /**
+     * 在帧线程加入帧回调
+     */
+    private final Runnable wakeUp = this::wakeUp;
+
+    /**
+     * 在帧线程移出帧回调
+     */
+    private final Runnable detach = this::detach;
+
+    /**
+     * 最大进度
+     */
+    private long max = 100;
+
+    /**
+     * 每段动画持续时间(纳秒)
+     */
+    private long durationNanos = 300_000_000L;
+
+    /**
+     * 动画时长方式
+     */
+    @DurationMode
+    private int durationMode = DURATION_FIXED;
+
+    /**
+     * 自适应时长下限(纳秒)
+     */
+    private long minAdaptiveDurationNanos = DEFAULT_MIN_ADAPTIVE_DURATION_NANOS;
+
+    /**
+     * 自适应时长上限(纳秒)
+     */
+    private long maxAdaptiveDurationNanos = DEFAULT_MAX_ADAPTIVE_DURATION_NANOS;
+
+    /**
+     * 目标进度到达速率估计器
+     */
+    private final ProgressRateEstimator rateEstimator = new ProgressRateEstimator();
+
+    /**
+     * 插值器
+     */
+    @NonNull
+    private ProgressInterpolator interpolator = ProgressInterpolator.LINEAR;
+
+    /**
+     * 重定向方式
+     */
+    @RetargetMode
+    private int retargetMode = RETARGET_RESTART;
+
+    /**
+     * 当前进度值
+     */
+    private long progress;
+
+    /**
+     * 当前位置（精确值）
+     */
+    private double position;
+
+    /**
+     * 动画开始进度值
+     */
+    private long progressStart;
+
+    /**
+     * 动画结束进度值
+     */
+    private long progressEnd;
+
+    /**
+     * 当前段是否为保持速度的过渡曲线
+     */
+    private boolean blending;
+
+    /**
+     * 过渡曲线起点（精确值）
+     */
+    private double blendStart;
+
+    /**
+     * 过渡曲线起点切线，即每段时长内的进度变化率
+     */
+    private double blendTangent;
+
+    /**
+     * 当前段动画时长(纳秒)
+     */
+    private long segmentDurationNanos = durationNanos;
+
+    /**
+     * 当前段动画开始帧时间(纳秒)
+     */
+    private long segmentStartNanos;
+
+    /**
+     * 当前段动画是否在执行
+     */
+    private boolean segmentRunning;
+
+    /**
+     * 是否已加入帧回调
+     */
+    private boolean ticking;
+
+    /**
+     * 本轮动画是否已通知结束
+     */
+    private boolean finishDispatched;
+
+    /**
+     * 是否已释放
+     */
+    private volatile boolean released;
+
+    /**
+     * 是否已暂停。仅帧线程读写
+     */
+    private boolean paused;
+
+    /**
+     * 运行指标。为null时不统计
+     */
+    @Nullable
+    private ProgressAnimMetrics metrics;
+
+    /**
+     * 调用轨迹记录器。为null时不记录
+     */
+    @Nullable
+    private ProgressTraceRecorder traceRecorder;
+
+    /**
+     * 每帧监听器通知的时间预算。为null时不限制
+     */
+    @Nullable
+    private FrameBudget frameBudget;
+
+    /**
+     * 按帧预算通知监听器，保存被推迟的低优先级监听器。仅帧线程读写
+     */
+    private final BudgetedDispatcher budgetedDispatcher = new BudgetedDispatcher();
+
+    /**
+     * 计时器对应的监听器快照
+     */
+    @Nullable
+    private ProgressListenerArray.Snapshot timedSnapshot;
+
+    /**
+     * 计时器对应的指标清零次数
+     */
+    private int timedGeneration;
+
+    /**
+     * 与监听器快照一一对应的计时器
+     */
+    @Nullable
+    private ProgressAnimMetrics.ListenerTimer[] timers;
+
+    public ProgressEngine(@NonNull FrameScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 设置最大进度
+     *
+     * @param max 最大进度
+     */
+    public void setMax(@IntRange(from = 0) long max) {
+        this.max = max;
+        accumulator.setMax(max);
+        recordConfig();
+    }
+
+    /**
+     * 设置每段动画时长
+     *
+     * @param timeMillis 动画时长(毫秒)
+     */
+    public void setDuration(long timeMillis) {
+        this.durationNanos = timeMillis * 1_000_000L;
+        recordConfig();
+    }
+
+    /**
+     * 设置动画时长方式
+     *
+     * @param durationMode {@link #DURATION_FIXED}每段使用固定时长；
+     *                     {@link #DURATION_ADAPTIVE}每段时长跟随目标进度的平均到达间隔，样本不足时使用固定时长
+     */
+    public void setDurationMode(@DurationMode int durationMode) {
+        this.durationMode = durationMode;
+        recordConfig();
+    }
+
+    /**
+     * 设置自适应时长范围，仅{@link #DURATION_ADAPTIVE}时生效
+     *
+     * @param minMillis 时长下限(毫秒)，默认为100
+     * @param maxMillis 时长上限(毫秒)，默认为3000。不能小于下限
+     */
+    public void setAdaptiveDurationRange(long minMillis, long maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("invalid adaptive duration range: [" + minMillis + ", " + maxMillis + "]");
+        }
+        this.minAdaptiveDurationNanos = minMillis * 1_000_000L;
+        this.maxAdaptiveDurationNanos = maxMillis * 1_000_000L;
+        recordConfig();
+    }
+
+    /**
+     * 设置动画插值器
+     *
+     * @param interpolator 动画插值器
+     */
+    public void setInterpolator(@NonNull ProgressInterpolator interpolator) {
+        this.interpolator = interpolator;
+    }
+
+    /**
+     * 设置进度通知方式
+     *
+     * @param dispatchMode 进度通知方式
+     */
+    public void setDispatchMode(@DispatchMode int dispatchMode) {
+        dispatchFilter.setOnChangeOnly(dispatchMode == DISPATCH_ON_CHANGE);
+        recordConfig();
+    }
+
+    /**
+     * 设置量化步长，仅{@link #DISPATCH_ON_CHANGE}时生效
+     *
+     * @param step 量化步长（进度单位）。数值需要大于0
+     */
+    public void setQuantizeStep(float step) {
+        dispatchFilter.setStep(step);
+        recordConfig();
+    }
+
+    /**
+     * 设置最大通知频率，超出频率的帧不通知，每段动画的最终值总会通知
+     *
+     * @param updatesPerSecond 每秒最多通知次数。为0时不限制
+     */
+    public void setMaxUpdateRate(@IntRange(from = 0) int updatesPerSecond) {
+        dispatchFilter.setMaxUpdateRate(updatesPerSecond);
+        recordConfig();
+    }
+
+    /**
+     * 设置最小可见变化量，与上次通知的进度值相差不足时不通知，每段动画的最终值总会通知
+     *
+     * @param minDelta 最小可见变化量（进度单位）。为0时不限制
+     */
+    public void setMinVisibleDelta(float minDelta) {
+        dispatchFilter.setMinDelta(minDelta);
+        recordConfig();
+    }
+
+    /**
+     * 设置重定向方式
+     *
+     * @param retargetMode 重定向方式
+     */
+    public void setRetargetMode(@RetargetMode int retargetMode) {
+        this.retargetMode = retargetMode;
+        recordConfig();
+    }
+
+    /**
+     * 设置关键帧队列，仅{@link #RETARGET_QUEUE}时生效。仅在动画开始前调用
+     *
+     * @param depth  队列深度。数值需要大于0
+     * @param policy 队列已满时的合并策略
+     */
+    public void setKeyframeQueue(int depth, @QueuePolicy int policy) {
+        keyframes.configure(depth, policy);
+        recordConfig();
+    }
+
+    /**
+     * 设置运行指标，同一个指标实例可被多个引擎共享。仅在动画开始前调用
+     *
+     * @param metrics 运行指标。为null时不统计
+     */
+    public void setMetrics(@Nullable ProgressAnimMetrics metrics) {
+        this.metrics = metrics;
+        this.timedSnapshot = null;
+        this.timers = null;
+    }
+
+    /**
+     * 获取运行指标
+     *
+     * @return 运行指标
+     */
+    @Nullable
+    public ProgressAnimMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 设置每帧监听器通知的时间预算，同一个预算实例可被同一帧线程上的多个引擎共享。仅在动画开始前调用
+     * 高优先级监听器总会通知；预算用完后，低优先级监听器推迟到之后的帧，合并为届时的最新进度值
+     *
+     * @param frameBudget 帧预算。为null时不限制，每帧通知所有监听器
+     */
+    public void setFrameBudget(@Nullable FrameBudget frameBudget) {
+        this.frameBudget = frameBudget;
+    }
+
+    /**
+     * 获取每帧监听器通知的时间预算
+     *
+     * @return 帧预算
+     */
+    @Nullable
+    public FrameBudget getFrameBudget() {
+        return frameBudget;
+    }
+
+    /**
+     * 设置调用轨迹记录器，记录当前配置与之后的配置变化、animateTo、animateOver、监听器注册与取消注册调用。
+     * 一个记录器同时只能绑定一个引擎，引擎释放或改用其他记录器后解除绑定
+     *
+     * @param recorder 调用轨迹记录器。为null时不记录
+     * @throws IllegalStateException 记录器已绑定其他引擎
+     */
+    public void setTraceRecorder(@Nullable ProgressTraceRecorder recorder) {
+        ProgressTraceRecorder old = traceRecorder;
+        if (recorder != null) {
+            recorder.bind(this);
+        }
+        if (old != null && old != recorder) {
+            old.unbind(this);
+        }
+        this.traceRecorder = recorder;
+        recordConfig();
+    }
+
+    /**
+     * 已设置调用轨迹记录器时记录当前配置
+     */
+    private void recordConfig() {
+        ProgressTraceRecorder recorder = traceRecorder;
+        if (recorder != null) {
+            recorder.recordConfig(scheduler.nanoTime(), traceConfig());
+        }
+    }
+
+    /**
+     * 导出影响进度序列的配置，供调用轨迹记录与回放
+     *
+     * @return 按{@link ProgressTraceRecorder}的CONFIG_*下标排列的配置项
+     */
+    @NonNull
+    long[] traceConfig() {
+        long[] config = new long[ProgressTraceRecorder.CONFIG_FIELDS];
+        config[ProgressTraceRecorder.CONFIG_MAX] = max;
+        config[ProgressTraceRecorder.CONFIG_DURATION_NANOS] = durationNanos;
+        config[ProgressTraceRecorder.CONFIG_RETARGET_MODE] = retargetMode;
+        config[ProgressTraceRecorder.CONFIG_DURATION_MODE] = durationMode;
+        config[ProgressTraceRecorder.CONFIG_MIN_ADAPTIVE_DURATION_NANOS] = minAdaptiveDurationNanos;
+        config[ProgressTraceRecorder.CONFIG_MAX_ADAPTIVE_DURATION_NANOS] = maxAdaptiveDurationNanos;
+        config[ProgressTraceRecorder.CONFIG_DISPATCH_MODE] = dispatchFilter.isOnChangeOnly()
+                ? DISPATCH_ON_CHANGE
+                : DISPATCH_EVERY_FRAME;
+        config[ProgressTraceRecorder.CONFIG_QUANTIZE_STEP_BITS] = Float.floatToIntBits(dispatchFilter.getStep());
+        config[ProgressTraceRecorder.CONFIG_MIN_VISIBLE_DELTA_BITS] = Float.floatToIntBits(dispatchFilter.getMinDelta());
+        config[ProgressTraceRecorder.CONFIG_MAX_UPDATE_RATE] = dispatchFilter.getMaxUpdateRate();
+        config[ProgressTraceRecorder.CONFIG_KEYFRAME_QUEUE_DEPTH] = keyframes.getDepth();
+        config[ProgressTraceRecorder.CONFIG_KEYFRAME_QUEUE_POLICY] = keyframes.getPolicy();
+        return config;
+    }
+
+    /**
+     * 获取待播放的关键帧数量。仅限帧线程调用
+     *
+     * @return 待播放的关键帧数量
+     */
+    public int getPendingKeyframeCount() {
+        return keyframes.size();
+    }
+
+    /**
+     * 获取最大进度
+     *
+     * @return 最大进度
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * 获取当前进度值。仅限帧线程调用
+     *
+     * @return 当前进度值
+     */
+    public long getProgress() {
+        return progress;
+    }
+
+    /**
+     * 获取精确的完成比例，即未截断的当前位置/最大进度。仅限帧线程调用
+     *
+     * @return 完成比例
+     */
+    public double getFraction() {
+        return max > 0 ? position / max : 1d;
+    }
+
+    /**
+     * 获取最新目标进度值
+     *
+     * @return 目标进度值
+     */
+    public long getTarget() {
+        return accumulator.get();
+    }
+
+    /**
+     * 获取目标进度到达速率估计器，可在任意线程查询吞吐量
+     *
+     * @return 速率估计器
+     */
+    @NonNull
+    public ProgressRateEstimator getRateEstimator() {
+        return rateEstimator;
+    }
+
+    /**
+     * 按目标进度的到达速率估计到达最大进度的剩余时间，可在任意线程调用
+     *
+     * @return 剩余时间(毫秒)。样本不足或进度停滞时为{@link ProgressRateEstimator#UNKNOWN}
+     */
+    public long getEtaMillis() {
+        long eta = rateEstimator.getEtaNanos(max - accumulator.get());
+        return eta == ProgressRateEstimator.UNKNOWN ? eta : eta / 1_000_000L;
+    }
+
+    /**
+     * 是否正在接收帧回调。仅限帧线程调用
+     *
+     * @return 是否正在执行动画
+     */
+    public boolean isRunning() {
+        return ticking;
+    }
+
+    /**
+     * 是否已释放。已释放的引擎不再接收帧回调，不能复用
+     *
+     * @return 是否已释放
+     */
+    public boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * 获取帧调度器
+     *
+     * @return 帧调度器
+     */
+    @NonNull
+    public FrameScheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void animateTo(int animateTo) {
+        animateTo((long) animateTo);
+    }
+
+    @Override
+    public void animateOver(int animateOver) {
+        animateOver((long) animateOver);
+    }
+
+    /**
+     * 动画到指定进度值，可在任意线程调用
+     *
+     * @param animateTo 目标进度值
+     */
+    public void animateTo(long animateTo) {
+        ProgressAnimMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.animateToCalls.increment();
+        }
+        ProgressTraceRecorder recorder = traceRecorder;
+        if (recorder != null) {
+            recorder.recordAnimateTo(scheduler.nanoTime(), animateTo);
+        }
+        accumulator.set(animateTo);
+        requestRetarget();
+    }
+
+    /**
+     * 在最新目标进度值基础上增加指定进度，可在任意线程调用
+     *
+     * @param animateOver 增加的进度值
+     */
+    public void animateOver(long animateOver) {
+        ProgressAnimMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.animateOverCalls.increment();
+        }
+        ProgressTraceRecorder recorder = traceRecorder;
+        if (recorder != null) {
+            recorder.recordAnimateOver(scheduler.nanoTime(), animateOver);
+        }
+        accumulator.add(animateOver);
+        requestRetarget();
+    }
+
+    /**
+     * 请求重定向。并发调用合并为至多一个待执行的帧线程任务，在下一帧统一生效
+     */
+    private void requestRetarget() {
+        ProgressAnimMetrics metrics = this.metrics;
+        if (accumulator.requestRetarget()) {
+            if (metrics != null) {
+                metrics.postsExecuted.increment();
+            }
+            scheduler.post(wakeUp);
+        } else if (metrics != null) {
+            metrics.postsCoalesced.increment();
+        }
+    }
+
+    /**
+     * 加入帧回调
+     */
+    private void wakeUp() {
+        // 暂停期间保留重定向请求，期间的调用继续合并，恢复时统一处理
+        if (!ticking && !released && !paused) {
+            ticking = true;
+            scheduler.addFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * 移出帧回调
+     */
+    private void detach() {
+        if (ticking) {
+            ticking = false;
+            scheduler.removeFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * 执行一帧
+     *
+     * @param frameTimeNanos 帧时间(纳秒)
+     * @return 是否需要继续接收下一帧
+     */
+    private boolean doFrame(long frameTimeNanos) {
+        if (released) {
+            ticking = false;
+            return false;
+        }
+        if (accumulator.isRetargetPending()) {
+            retarget(frameTimeNanos);
+        }
+        if (segmentRunning) {
+            float fraction = segmentFraction(frameTimeNanos);
+            // 关键帧连续播放：上一段在本帧之前结束时，从其结束时刻直接进入下一段
+            while (fraction >= 1f && keyframes.size() > 0) {
+                progress = progressEnd;
+                startSegment(keyframes.poll(), segmentStartNanos + segmentDurationNanos);
+                fraction = segmentFraction(frameTimeNanos);
+            }
+            boolean segmentEnd = fraction >= 1f;
+            if (segmentEnd) {
+                segmentRunning = false;
+            }
+            updateProgress(positionAt(fraction), frameTimeNanos, segmentEnd);
+        } else if (budgetedDispatcher.hasDeferred()) {
+            // 动画已结束，继续向被推迟的监听器补发最终进度
+            dispatchBudgeted(frameTimeNanos, false, true);
+        }
+        // 重定向请求在下一帧消费，被推迟的监听器在之后的帧补发，期间保持帧回调
+        if (!segmentRunning && !accumulator.isRetargetPending() && !budgetedDispatcher.hasDeferred()) {
+            ticking = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 计算当前段动画的时间进度
+     *
+     * @param frameTimeNanos 帧时间(纳秒)
+     * @return 时间进度，取值[0,1]
+     */
+    private float segmentFraction(long frameTimeNanos) {
+        return segmentDurationNanos > 0
+                ? Math.min(1f, (float) (frameTimeNanos - segmentStartNanos) / segmentDurationNanos)
+                : 1f;
+    }
+
+    /**
+     * 重定向到最新目标进度
+     *
+     * @param frameTimeNanos 帧时间(纳秒)
+     */
+    private void retarget(long frameTimeNanos) {
+        long end = accumulator.consumeTarget();
+        rateEstimator.sample(end, frameTimeNanos);
+        if (retargetMode == RETARGET_QUEUE && segmentRunning) {
+            keyframes.offer(end, progressEnd);
+            return;
+        }
+        if (end == progressEnd) {
+            return;
+        }
+        if (segmentRunning && segmentFraction(frameTimeNanos) >= 1f) {
+            // 当前段已在本帧之前结束，从其结束值开始新一段，不算作打断
+            progress = progressEnd;
+            segmentRunning = false;
+        }
+        if (retargetMode == RETARGET_VELOCITY && segmentRunning) {
+            // 以本帧时刻旧曲线的位置与速度作为新曲线的起点
+            float fraction = segmentFraction(frameTimeNanos);
+            double start = positionAt(fraction);
+            double tangent = tangentAt(fraction);
+            long previousDurationNanos = segmentDurationNanos;
+            startSegment(end, frameTimeNanos);
+            blending = true;
+            blendStart = start;
+            // 切线以每段时长计量，自适应时长下新段时长可能不同，换算到新段的时间尺度以保持速度连续
+            blendTangent = limitTangent(start, previousDurationNanos > 0
+                    ? tangent * segmentDurationNanos / previousDurationNanos
+                    : tangent, end);
+            return;
+        }
+        if (segmentRunning && metrics != null) {
+            // 打断正在执行的动画，从当前进度重新开始
+            metrics.restarts.increment();
+        }
+        startSegment(end, frameTimeNanos);
+    }
+
+    /**
+     * 限制Hermite曲线的起点切线，使曲线不越过目标且不触及进度边界
+     * <p>
+     * 切线指向目标时按单调三次插值(Fritsch–Carlson)的条件限制为起止距离的3倍，曲线单调地到达目标，不会先越过再回退；
+     * 切线背离目标时保留先减速再折返的效果，但基函数s(1-s)^2的最大值为4/27，
+     * 按起点到边界的距离限制切线，折返前的位置不会到达0或最大进度
+     *
+     * @param start   起点位置
+     * @param tangent 起点切线
+     * @param end     结束进度值
+     * @return 限制后的切线
+     */
+    private double limitTangent(double start, double tangent, long end) {
+        double distance = end - start;
+        if (tangent * distance >= 0) {
+            double limit = 3 * Math.abs(distance);
+            return Math.max(-limit, Math.min(tangent, limit));
+        }
+        if (tangent > 0) {
+            return Math.min(tangent, (max - start) * 27 / 4);
+        }
+        return Math.max(tangent, -start * 27 / 4);
+    }
+
+    /**
+     * 计算当前段在指定时间进度的位置
+     *
+     * @param fraction 时间进度，取值[0,1]
+     * @return 进度值（精确值）
+     */
+    private double positionAt(float fraction) {
+        if (!blending) {
+            // 64位差值不会溢出：起止进度均在[0,max]内
+            double offset = (double) interpolator.getInterpolation(fraction) * (progressEnd - progressStart);
+            // 插值结果只有float精度，与整数相差在其舍入误差内时按整数处理，避免截断到前一个整数
+            double rounded = Math.rint(offset);
+            if (Math.abs(offset - rounded) <= Math.abs(offset) * FLOAT_ROUNDING) {
+                offset = rounded;
+            }
+            return progressStart + offset;
+        }
+        // 三次Hermite曲线：起点位置与切线来自旧曲线，终点速度为0
+        double s = fraction;
+        double s2 = s * s;
+        double s3 = s2 * s;
+        double position = (2 * s3 - 3 * s2 + 1) * blendStart
+                + (s3 - 2 * s2 + s) * blendTangent
+                + (-2 * s3 + 3 * s2) * progressEnd;
+        return Math.max(0, Math.min(position, max));
+    }
+
+    /**
+     * 计算当前段在指定时间进度的切线，即每段时长内的进度变化率
+     *
+     * @param fraction 时间进度，取值[0,1]
+     * @return 切线
+     */
+    private double tangentAt(float fraction) {
+        if (fraction >= 1f) {
+            return 0;
+        }
+        if (!blending) {
+            float low = Math.max(0f, fraction - TANGENT_STEP);
+            float high = Math.min(1f, fraction + TANGENT_STEP);
+            double slope = (interpolator.getInterpolation(high) - interpolator.getInterpolation(low)) / (high - low);
+            return slope * (double) (progressEnd - progressStart);
+        }
+        double s = fraction;
+        double s2 = s * s;
+        return (6 * s2 - 6 * s) * blendStart
+                + (3 * s2 - 4 * s + 1) * blendTangent
+                + (-6 * s2 + 6 * s) * progressEnd;
+    }
+
+    /**
+     * 从当前进度开始新一段动画
+     *
+     * @param end        结束进度值
+     * @param startNanos 开始时间(纳秒)
+     */
+    private void startSegment(long end, long startNanos) {
+        progressStart = progress;
+        progressEnd = end;
+        segmentStartNanos = startNanos;
+        segmentDurationNanos = nextSegmentDuration();
+        segmentRunning = true;
+        blending = false;
+        // 新一轮动画
+        finishDispatched = false;
+    }
+
+    /**
+     * 计算下一段动画时长
+     *
+     * @return 动画时长(纳秒)
+     */
+    private long nextSegmentDuration() {
+        long interval = rateEstimator.getArrivalIntervalNanos();
+        if (durationMode != DURATION_ADAPTIVE || interval <= 0) {
+            return durationNanos;
+        }
+        // 每段时长等于平均到达间隔：下一个目标到达时当前段恰好结束，动画连续且很少被打断
+        return Math.max(minAdaptiveDurationNanos, Math.min(interval, maxAdaptiveDurationNanos));
+    }
+
+    /**
+     * 更新当前进度值并通知
+     *
+     * @param position       当前位置（精确值）
+     * @param frameTimeNanos 帧时间(纳秒)
+     * @param segmentEnd     是否为当前段动画的最后一帧
+     */
+    private void updateProgress(double position, long frameTimeNanos, boolean segmentEnd) {
+        this.position = position;
+        progress = (long) position;
+        // 若当前进度值=总进度值且本段以总进度值为目标，则通知动画结束，每轮动画只通知一次
+        boolean isFinish = max == progress && progressEnd == max && !finishDispatched;
+        if (isFinish) {
+            finishDispatched = true;
+        }
+        ProgressAnimMetrics metrics = this.metrics;
+        if (dispatchFilter.accept(progress, frameTimeNanos, segmentEnd, isFinish)) {
+            if (frameBudget != null || budgetedDispatcher.hasDeferred()) {
+                dispatchBudgeted(frameTimeNanos, isFinish, false);
+            } else if (metrics == null) {
+                listeners.dispatch(progress, getFraction(), isFinish);
+            } else {
+                dispatchTimed(metrics, isFinish);
+            }
+        } else {
+            if (metrics != null) {
+                metrics.framesSkipped.increment();
+            }
+            if (budgetedDispatcher.hasDeferred()) {
+                dispatchBudgeted(frameTimeNanos, false, true);
+            }
+        }
+    }
+
+    /**
+     * 按帧预算通知监听器，预算用完时推迟低优先级监听器
+     *
+     * @param frameTimeNanos 帧时间(纳秒)
+     * @param isFinish       是否通知动画结束
+     * @param deferredOnly   是否只补发被推迟的监听器
+     */
+    private void dispatchBudgeted(long frameTimeNanos, boolean isFinish, boolean deferredOnly) {
+        ProgressAnimMetrics metrics = this.metrics;
+        ProgressListenerArray.Snapshot snapshot = listeners.getSnapshot();
+        ProgressAnimMetrics.ListenerTimer[] timers = metrics != null ? resolveTimers(metrics, snapshot) : null;
+        long start = System.nanoTime();
+        int deferred = budgetedDispatcher.dispatch(snapshot, progress, getFraction(), isFinish, max, frameBudget,
+                frameTimeNanos, deferredOnly, timers);
+        if (metrics != null) {
+            metrics.dispatchNanos.add(System.nanoTime() - start);
+            if (!deferredOnly) {
+                metrics.framesDispatched.increment();
+            }
+            if (deferred > 0) {
+                metrics.listenersDeferred.add(deferred);
+                metrics.framesOverBudget.increment();
+            }
+        }
+    }
+
+    /**
+     * 立即通知所有监听器，不受帧预算限制，同时补发被推迟的监听器
+     *
+     * @param isFinish 是否通知动画结束
+     */
+    private void dispatchAll(boolean isFinish) {
+        if (budgetedDispatcher.hasDeferred()) {
+            budgetedDispatcher.dispatch(listeners.getSnapshot(), progress, getFraction(), isFinish, max, null, 0L,
+                    false, null);
+        } else {
+            listeners.dispatch(progress, getFraction(), isFinish);
+        }
+    }
+
+    /**
+     * 通知所有监听器并记录耗时
+     *
+     * @param metrics  运行指标
+     * @param isFinish 是否通知动画结束
+     */
+    private void dispatchTimed(@NonNull ProgressAnimMetrics metrics, boolean isFinish) {
+        ProgressListenerArray.Snapshot snapshot = listeners.getSnapshot();
+        ProgressAnimMetrics.ListenerTimer[] timers = resolveTimers(metrics, snapshot);
+        OnLongProgressChangeListener[] array = snapshot.listeners;
+        double fraction = getFraction();
+        long frameStart = System.nanoTime();
+        long start = frameStart;
+        for (int i = 0; i < array.length; i++) {
+            array[i].onChange(progress, fraction);
+            if (isFinish) {
+                array[i].onFinish();
+            }
+            long end = System.nanoTime();
+            timers[i].record(end - start);
+            start = end;
+        }
+        metrics.dispatchNanos.add(start - frameStart);
+        metrics.framesDispatched.increment();
+    }
+
+    /**
+     * 获取与监听器快照一一对应的计时器
+     *
+     * @param metrics  运行指标
+     * @param snapshot 监听器快照
+     * @return 计时器
+     */
+    @NonNull
+    private ProgressAnimMetrics.ListenerTimer[] resolveTimers(@NonNull ProgressAnimMetrics metrics,
+                                                              @NonNull ProgressListenerArray.Snapshot snapshot) {
+        ProgressAnimMetrics.ListenerTimer[] timers = this.timers;
+        int generation = metrics.getGeneration();
+        // 监听器变化或指标清零后重新获取计时器
+        if (timers == null || snapshot != timedSnapshot || generation != timedGeneration) {
+            timers = metrics.resolveTimers(snapshot.keys);
+            this.timers = timers;
+            timedSnapshot = snapshot;
+            timedGeneration = generation;
+        }
+        return timers;
+    }
+
+    /**
+     * 直接跳到指定进度值，不播放动画，通知监听器当前进度。仅限帧线程调用
+     * 用于恢复缓存的进度状态，已到达最大进度时不重复通知结束
+     *
+     * @param value 进度值
+     */
+    public void jumpTo(long value) {
+        jump(accumulator.set(Math.max(0L, value)), false);
+    }
+
+    /**
+     * 直接跳到指定进度值并通知监听器
+     *
+     * @param target       进度值
+     * @param notifyFinish 到达最大进度且本轮尚未通知结束时，是否通知结束
+     */
+    private void jump(long target, boolean notifyFinish) {
+        keyframes.clear();
+        rateEstimator.reset();
+        segmentRunning = false;
+        blending = false;
+        progressStart = target;
+        progressEnd = target;
+        position = target;
+        progress = target;
+        boolean isFinish = notifyFinish && target == max && !finishDispatched;
+        finishDispatched = target == max;
+        dispatchFilter.reset();
+        dispatchAll(isFinish);
+    }
+
+    /**
+     * 暂停或恢复。仅限帧线程调用
+     * 暂停期间不接收帧回调、不通知监听器，{@link #animateTo(long)}等调用仍会更新目标进度；
+     * 恢复时不补播暂停期间的动画，直接跳到最新目标进度
+     *
+     * @param paused 是否暂停
+     */
+    public void setPaused(boolean paused) {
+        if (this.paused == paused || released) {
+            return;
+        }
+        this.paused = paused;
+        if (paused) {
+            detach();
+        } else {
+            jump(accumulator.consumeTarget(), true);
+        }
+    }
+
+    /**
+     * 是否已暂停。仅限帧线程调用
+     *
+     * @return 是否已暂停
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * 保存状态快照，包含当前进度、目标进度、执行中的动画段与待播放的关键帧。仅限帧线程调用
+     *
+     * @return 状态快照
+     */
+    @NonNull
+    public ProgressSnapshot saveState() {
+        float elapsed = segmentRunning ? segmentFraction(scheduler.nanoTime()) : 1f;
+        return new ProgressSnapshot(max, progress, progressStart, progressEnd, accumulator.get(), segmentRunning,
+                elapsed, segmentDurationNanos, blending, blendStart, blendTangent, finishDispatched, keyframes.toArray());
+    }
+
+    /**
+     * 从状态快照恢复，执行中的动画段从保存时的已执行比例继续播放，不从0重新开始。仅限帧线程调用
+     * 快照不包含时长、插值器等配置，需在按原配置创建的引擎上恢复；恢复时通知监听器当前进度，不重复通知结束
+     *
+     * @param snapshot 状态快照
+     */
+    public void restoreState(@NonNull ProgressSnapshot snapshot) {
+        if (released) {
+            return;
+        }
+        setMax(snapshot.max);
+        keyframes.clear();
+        long settled = snapshot.progressEnd;
+        for (long keyframe : snapshot.keyframes) {
+            keyframes.offer(keyframe, settled);
+            settled = keyframe;
+        }
+        progress = snapshot.progress;
+        position = snapshot.progress;
+        progressStart = snapshot.progressStart;
+        progressEnd = snapshot.progressEnd;
+        segmentRunning = snapshot.segmentRunning;
+        blending = snapshot.blending;
+        blendStart = snapshot.blendStart;
+        blendTangent = snapshot.blendTangent;
+        finishDispatched = snapshot.finishDispatched;
+        rateEstimator.reset();
+        // 自适应时长的段按保存时的时长继续，旧版本快照没有记录时使用当前配置
+        segmentDurationNanos = snapshot.segmentDurationNanos > 0 ? snapshot.segmentDurationNanos : durationNanos;
+        if (segmentRunning) {
+            segmentStartNanos = scheduler.nanoTime() - (long) (snapshot.elapsedFraction * segmentDurationNanos);
+            position = positionAt(segmentFraction(scheduler.nanoTime()));
+        }
+        accumulator.set(snapshot.target);
+        accumulator.consumeTarget();
+        dispatchFilter.reset();
+        dispatchAll(false);
+        // 保存时尚未消费的目标按重定向处理
+        if (accumulator.get() != settled) {
+            requestRetarget();
+        } else if (segmentRunning) {
+            wakeUp();
+        }
+    }
+
+    /**
+     * 重置为初始状态以便复用：停止动画、清空监听器与关键帧，进度归0。仅限帧线程调用
+     * 配置（时长、插值器、最大进度等）保持不变
+     */
+    public void reset() {
+        listeners.clear();
+        accumulator.set(0L);
+        accumulator.consumeTarget();
+        keyframes.clear();
+        rateEstimator.reset();
+        detach();
+        paused = false;
+        segmentRunning = false;
+        blending = false;
+        progress = 0;
+        position = 0;
+        progressStart = 0;
+        progressEnd = 0;
+        finishDispatched = false;
+        dispatchFilter.reset();
+        budgetedDispatcher.clear();
+        timedSnapshot = null;
+        timers = null;
+    }
+
+    @Override
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener listener) {
+        traceRegister(key);
+        listeners.put(key, listener);
+    }
+
+    /**
+     * 注册进度监听器，在指定线程投递
+     * 非帧线程投递时合并为最新进度值，不会积压，结束通知总在其对应的进度值之后投递
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     * @param executor 投递线程。为null时在帧线程同步通知
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener listener,
+                                           @Nullable Executor executor) {
+        registerOnProgressListener(key, IntProgressListenerAdapter.wrap(listener), executor);
+    }
+
+    /**
+     * 注册64位进度监听器
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnLongProgressChangeListener listener) {
+        traceRegister(key);
+        listeners.put(key, listener);
+    }
+
+    /**
+     * 按优先级注册进度监听器
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     * @param priority {@link #PRIORITY_HIGH}每帧总会通知；
+     *                 {@link #PRIORITY_LOW}设置{@link FrameBudget}后，预算用完时推迟到之后的帧，合并为最新进度值
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener listener,
+                                           @ListenerPriority int priority) {
+        registerOnProgressListener(key, IntProgressListenerAdapter.wrap(listener), priority);
+    }
+
+    /**
+     * 按优先级注册64位进度监听器
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     * @param priority {@link #PRIORITY_HIGH}每帧总会通知；
+     *                 {@link #PRIORITY_LOW}设置{@link FrameBudget}后，预算用完时推迟到之后的帧，合并为最新进度值
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnLongProgressChangeListener listener,
+                                           @ListenerPriority int priority) {
+        traceRegister(key);
+        listeners.put(key, listener, priority);
+    }
+
+    /**
+     * 注册64位进度监听器，在指定线程投递
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     * @param executor 投递线程。为null时在帧线程同步通知
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnLongProgressChangeListener listener,
+                                           @Nullable Executor executor) {
+        traceRegister(key);
+        listeners.put(key, executor == null
+                ? listener
+                : (OnLongProgressChangeListener) new ConflatingProgressListener(listener, executor));
+    }
+
+    /**
+     * 批量注册进度监听器
+     *
+     * @param listenerMap 监听器Map
+     */
+    public void registerOnProgressListeners(@NonNull Map<String, OnProgressChangeListener> listenerMap) {
+        Map<String, OnLongProgressChangeListener> wrapped = new LinkedHashMap<>();
+        for (Map.Entry<String, OnProgressChangeListener> entry : listenerMap.entrySet()) {
+            wrapped.put(entry.getKey(), IntProgressListenerAdapter.wrap(entry.getValue()));
+        }
+        registerOnLongProgressListeners(wrapped);
+    }
+
+    /**
+     * 批量注册64位进度监听器
+     *
+     * @param listenerMap 监听器Map
+     */
+    public void registerOnLongProgressListeners(@NonNull Map<String, ? extends OnLongProgressChangeListener> listenerMap) {
+        registerOnLongProgressListeners(listenerMap, PRIORITY_HIGH);
+    }
+
+    /**
+     * 按优先级批量注册64位进度监听器
+     *
+     * @param listenerMap 监听器Map
+     * @param priority    优先级
+     */
+    public void registerOnLongProgressListeners(@NonNull Map<String, ? extends OnLongProgressChangeListener> listenerMap,
+                                                @ListenerPriority int priority) {
+        for (String key : listenerMap.keySet()) {
+            traceRegister(key);
+        }
+        listeners.putAll(listenerMap, priority);
+    }
+
+    /**
+     * 记录监听器注册
+     *
+     * @param key 键
+     */
+    private void traceRegister(@NonNull String key) {
+        ProgressTraceRecorder recorder = traceRecorder;
+        if (recorder != null) {
+            recorder.recordRegister(scheduler.nanoTime(), key);
+        }
+    }
+
+    @Override
+    public void unregisterOnProgressListener(@Nullable String key) {
+        if (key == null) {
+            unregisterAllOnProgressListener();
+            return;
+        }
+        ProgressTraceRecorder recorder = traceRecorder;
+        if (recorder != null) {
+            recorder.recordUnregister(scheduler.nanoTime(), key);
+        }
+        listeners.remove(key);
+    }
+
+    @Override
+    public void unregisterAllOnProgressListener() {
+        ProgressTraceRecorder recorder = traceRecorder;
+        if (recorder != null) {
+            recorder.recordUnregister(scheduler.nanoTime(), null);
+        }
+        listeners.clear();
+    }
+
+    @Override
+    public void release() {
+        released = true;
+        unregisterAllOnProgressListener();
+        ProgressTraceRecorder recorder = traceRecorder;
+        if (recorder != null) {
+            traceRecorder = null;
+            recorder.unbind(this);
+        }
+        scheduler.post(detach);
+    }
+}
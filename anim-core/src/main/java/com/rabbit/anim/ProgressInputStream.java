@@ -0,0 +1,87 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 上报读取进度的输入流
+ * <p>
+ * 读取、跳过的字节计入进度，读到末尾或关闭时上报最终进度。不支持mark/reset。
+ */
+public class ProgressInputStream extends FilterInputStream {
+    /**
+     * 字节进度上报器
+     */
+    @NonNull
+    private final ByteProgressReporter reporter;
+
+    public ProgressInputStream(@NonNull InputStream in, @NonNull ByteProgressReporter reporter) {
+        super(in);
+        this.reporter = reporter;
+    }
+
+    /**
+     * 获取字节进度上报器
+     *
+     * @return 字节进度上报器
+     */
+    @NonNull
+    public ByteProgressReporter getReporter() {
+        return reporter;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            reporter.onBytes(1);
+        } else {
+            reporter.flush();
+        }
+        return b;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+        int count = in.read(b, off, len);
+        if (count > 0) {
+            reporter.onBytes(count);
+        } else if (count < 0) {
+            reporter.flush();
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long count = in.skip(n);
+        reporter.onBytes(count);
+        return count;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            reporter.flush();
+        }
+    }
+}
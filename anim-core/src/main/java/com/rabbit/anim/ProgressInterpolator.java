@@ -0,0 +1,19 @@
+package com.rabbit.anim;
+
+/**
+ * 动画插值器，与平台无关
+ */
+public interface ProgressInterpolator {
+    /**
+     * 线性插值器
+     */
+    ProgressInterpolator LINEAR = input -> input;
+
+    /**
+     * 计算插值
+     *
+     * @param input 动画时间进度，取值[0,1]
+     * @return 插值后的动画进度
+     */
+    float getInterpolation(float input);
+}
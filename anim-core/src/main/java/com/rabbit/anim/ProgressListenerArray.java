@@ -0,0 +1,208 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 写时复制的进度监听器集合
+ * <p>
+ * 注册、取消注册时重建监听器数组快照，逐帧通知只遍历快照数组，不产生任何对象分配。
+ * 快照中高优先级监听器排在低优先级之前，同一优先级内保持注册顺序。
+ */
+final class ProgressListenerArray {
+    private static final Snapshot EMPTY =
+            new Snapshot(new String[0], new ProgressAnimInterface.OnLongProgressChangeListener[0], 0);
+
+    /**
+     * 监听器Map，按注册顺序保存。由this保护
+     */
+    private final Map<String, ProgressAnimInterface.OnLongProgressChangeListener> listenerMap = new LinkedHashMap<>();
+
+    /**
+     * 低优先级监听器的Key。由this保护
+     */
+    private final Set<String> lowPriorityKeys = new HashSet<>();
+
+    /**
+     * 监听器数组快照
+     */
+    private volatile Snapshot snapshot = EMPTY;
+
+    /**
+     * 注册监听器。相同key的监听器会被替换
+     *
+     * @param key      键
+     * @param listener 监听器
+     */
+    void put(@NonNull String key, @NonNull ProgressAnimInterface.OnLongProgressChangeListener listener) {
+        put(key, listener, ProgressAnimInterface.PRIORITY_HIGH);
+    }
+
+    /**
+     * 按优先级注册监听器。相同key的监听器会被替换
+     *
+     * @param key      键
+     * @param listener 监听器
+     * @param priority 优先级
+     */
+    synchronized void put(@NonNull String key, @NonNull ProgressAnimInterface.OnLongProgressChangeListener listener,
+                          @ProgressAnimInterface.ListenerPriority int priority) {
+        listenerMap.put(key, listener);
+        setPriority(key, priority);
+        rebuild();
+    }
+
+    /**
+     * 注册int进度监听器。相同key的监听器会被替换
+     *
+     * @param key      键
+     * @param listener 监听器
+     */
+    void put(@NonNull String key, @NonNull ProgressAnimInterface.OnProgressChangeListener listener) {
+        put(key, IntProgressListenerAdapter.wrap(listener));
+    }
+
+    /**
+     * 批量注册监听器
+     *
+     * @param listeners 监听器Map
+     */
+    void putAll(@NonNull Map<String, ? extends ProgressAnimInterface.OnLongProgressChangeListener> listeners) {
+        putAll(listeners, ProgressAnimInterface.PRIORITY_HIGH);
+    }
+
+    /**
+     * 按优先级批量注册监听器
+     *
+     * @param listeners 监听器Map
+     * @param priority  优先级
+     */
+    synchronized void putAll(@NonNull Map<String, ? extends ProgressAnimInterface.OnLongProgressChangeListener> listeners,
+                             @ProgressAnimInterface.ListenerPriority int priority) {
+        listenerMap.putAll(listeners);
+        for (String key : listeners.keySet()) {
+            setPriority(key, priority);
+        }
+        rebuild();
+    }
+
+    /**
+     * 记录监听器优先级
+     *
+     * @param key      键
+     * @param priority 优先级
+     */
+    private void setPriority(@NonNull String key, @ProgressAnimInterface.ListenerPriority int priority) {
+        if (priority == ProgressAnimInterface.PRIORITY_LOW) {
+            lowPriorityKeys.add(key);
+        } else {
+            lowPriorityKeys.remove(key);
+        }
+    }
+
+    /**
+     * 取消注册监听器
+     *
+     * @param key 键
+     */
+    synchronized void remove(@NonNull String key) {
+        if (listenerMap.remove(key) != null) {
+            lowPriorityKeys.remove(key);
+            rebuild();
+        }
+    }
+
+    /**
+     * 取消注册所有监听器
+     */
+    synchronized void clear() {
+        listenerMap.clear();
+        lowPriorityKeys.clear();
+        snapshot = EMPTY;
+    }
+
+    /**
+     * 获取监听器数量
+     *
+     * @return 监听器数量
+     */
+    int size() {
+        return snapshot.listeners.length;
+    }
+
+    /**
+     * 获取当前快照。快照不可修改，注册、取消注册时整体替换
+     *
+     * @return 监听器快照
+     */
+    @NonNull
+    Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 通知所有监听器。热路径，不产生对象分配
+     *
+     * @param progress 当前进度值
+     * @param fraction 精确的完成比例
+     * @param isFinish 是否通知动画结束
+     */
+    void dispatch(long progress, double fraction, boolean isFinish) {
+        ProgressAnimInterface.OnLongProgressChangeListener[] listeners = snapshot.listeners;
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i].onChange(progress, fraction);
+            if (isFinish) {
+                listeners[i].onFinish();
+            }
+        }
+    }
+
+    /**
+     * 重建监听器数组快照
+     */
+    private void rebuild() {
+        if (lowPriorityKeys.isEmpty()) {
+            snapshot = new Snapshot(listenerMap.keySet().toArray(EMPTY.keys), listenerMap.values().toArray(EMPTY.listeners),
+                    listenerMap.size());
+            return;
+        }
+        int size = listenerMap.size();
+        String[] keys = new String[size];
+        ProgressAnimInterface.OnLongProgressChangeListener[] listeners = new ProgressAnimInterface.OnLongProgressChangeListener[size];
+        int high = 0;
+        int low = size - lowPriorityKeys.size();
+        for (Map.Entry<String, ProgressAnimInterface.OnLongProgressChangeListener> entry : listenerMap.entrySet()) {
+            int index = lowPriorityKeys.contains(entry.getKey()) ? low++ : high++;
+            keys[index] = entry.getKey();
+            listeners[index] = entry.getValue();
+        }
+        snapshot = new Snapshot(keys, listeners, high);
+    }
+
+    /**
+     * 监听器快照，keys与listeners一一对应，前highCount个为高优先级监听器
+     */
+    static final class Snapshot {
+        @NonNull
+        final String[] keys;
+
+        @NonNull
+        final ProgressAnimInterface.OnLongProgressChangeListener[] listeners;
+
+        /**
+         * 高优先级监听器数量
+         */
+        final int highCount;
+
+        Snapshot(@NonNull String[] keys, @NonNull ProgressAnimInterface.OnLongProgressChangeListener[] listeners,
+                 int highCount) {
+            this.keys = keys;
+            this.listeners = listeners;
+            this.highCount = highCount;
+        }
+    }
+}
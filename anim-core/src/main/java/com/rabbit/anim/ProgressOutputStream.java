@@ -0,0 +1,56 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 上报写入进度的输出流
+ * <p>
+ * 批量写入直接交给目标流，不逐字节拆分；关闭时上报最终进度。
+ */
+public class ProgressOutputStream extends FilterOutputStream {
+    /**
+     * 字节进度上报器
+     */
+    @NonNull
+    private final ByteProgressReporter reporter;
+
+    public ProgressOutputStream(@NonNull OutputStream out, @NonNull ByteProgressReporter reporter) {
+        super(out);
+        this.reporter = reporter;
+    }
+
+    /**
+     * 获取字节进度上报器
+     *
+     * @return 字节进度上报器
+     */
+    @NonNull
+    public ByteProgressReporter getReporter() {
+        return reporter;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        reporter.onBytes(1);
+    }
+
+    @Override
+    public void write(@NonNull byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        reporter.onBytes(len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            reporter.flush();
+        }
+    }
+}
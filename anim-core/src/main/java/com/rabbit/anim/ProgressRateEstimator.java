@@ -0,0 +1,143 @@
+package com.rabbit.anim;
+
+/**
+ * 进度到达速率估计器
+ * <p>
+ * 以指数加权移动平均(EWMA)估计目标进度的到达间隔与每次到达的增量，得到吞吐量与剩余时间。
+ * 权重按时间衰减：距今一个半衰期的样本权重减半，与样本频率无关。
+ * 由帧线程在消费目标进度时采样，并发调用合并后每帧至多一个样本；查询可在任意线程调用。
+ */
+public final class ProgressRateEstimator {
+    /**
+     * 默认半衰期(纳秒)
+     */
+    public static final long DEFAULT_HALF_LIFE_NANOS = 1_000_000_000L;
+
+    /**
+     * 未知的剩余时间
+     */
+    public static final long UNKNOWN = -1L;
+
+    /**
+     * 半衰期(纳秒)
+     */
+    private final long halfLifeNanos;
+
+    /**
+     * 上次采样的目标进度值
+     */
+    private long lastTarget;
+
+    /**
+     * 上次采样时间(纳秒)
+     */
+    private long lastNanos;
+
+    /**
+     * 是否已有样本
+     */
+    private boolean started;
+
+    /**
+     * 平均到达间隔(纳秒)。没有足够样本时为0
+     */
+    private volatile double interval;
+
+    /**
+     * 平均每次到达的增量
+     */
+    private volatile double delta;
+
+    public ProgressRateEstimator() {
+        this(DEFAULT_HALF_LIFE_NANOS);
+    }
+
+    /**
+     * @param halfLifeNanos 半衰期(纳秒)。数值需要大于0，越小越快跟随速率变化
+     */
+    public ProgressRateEstimator(long halfLifeNanos) {
+        if (halfLifeNanos <= 0) {
+            throw new IllegalArgumentException("halfLifeNanos must be positive: " + halfLifeNanos);
+        }
+        this.halfLifeNanos = halfLifeNanos;
+    }
+
+    /**
+     * 记录一次目标进度到达。仅限帧线程调用
+     * 目标后退时视为新一轮进度，重新估计
+     *
+     * @param target 目标进度值
+     * @param nanos  到达时间(纳秒)
+     */
+    public void sample(long target, long nanos) {
+        if (!started || target < lastTarget) {
+            reset();
+            started = true;
+            lastTarget = target;
+            lastNanos = nanos;
+            return;
+        }
+        long elapsed = nanos - lastNanos;
+        if (elapsed <= 0) {
+            // 同一帧内的多次到达合并到下一个样本
+            return;
+        }
+        double sampleDelta = target - lastTarget;
+        lastTarget = target;
+        lastNanos = nanos;
+        if (interval == 0) {
+            interval = elapsed;
+            delta = sampleDelta;
+            return;
+        }
+        double weight = 1 - Math.pow(0.5, (double) elapsed / halfLifeNanos);
+        interval += weight * (elapsed - interval);
+        delta += weight * (sampleDelta - delta);
+    }
+
+    /**
+     * 清空样本
+     */
+    public void reset() {
+        started = false;
+        interval = 0;
+        delta = 0;
+    }
+
+    /**
+     * 获取平均到达间隔
+     *
+     * @return 平均到达间隔(纳秒)。样本不足时为0
+     */
+    public long getArrivalIntervalNanos() {
+        return (long) interval;
+    }
+
+    /**
+     * 获取吞吐量
+     *
+     * @return 每秒到达的进度单位。样本不足时为0
+     */
+    public double getThroughput() {
+        double interval = this.interval;
+        return interval > 0 ? delta * 1e9 / interval : 0;
+    }
+
+    /**
+     * 按当前吞吐量估计剩余时间
+     *
+     * @param remaining 剩余进度
+     * @return 剩余时间(纳秒)。样本不足或进度停滞时为{@link #UNKNOWN}
+     */
+    public long getEtaNanos(long remaining) {
+        if (remaining <= 0) {
+            return 0;
+        }
+        double throughput = getThroughput();
+        if (throughput <= 0) {
+            return UNKNOWN;
+        }
+        double eta = remaining * 1e9 / throughput;
+        return eta >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) eta;
+    }
+}
@@ -0,0 +1,66 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * 上报读取进度的通道
+ * <p>
+ * 读到末尾或关闭时上报最终进度。
+ */
+public class ProgressReadableByteChannel implements ReadableByteChannel {
+    /**
+     * 目标通道
+     */
+    @NonNull
+    private final ReadableByteChannel channel;
+
+    /**
+     * 字节进度上报器
+     */
+    @NonNull
+    private final ByteProgressReporter reporter;
+
+    public ProgressReadableByteChannel(@NonNull ReadableByteChannel channel, @NonNull ByteProgressReporter reporter) {
+        this.channel = channel;
+        this.reporter = reporter;
+    }
+
+    /**
+     * 获取字节进度上报器
+     *
+     * @return 字节进度上报器
+     */
+    @NonNull
+    public ByteProgressReporter getReporter() {
+        return reporter;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int count = channel.read(dst);
+        if (count > 0) {
+            reporter.onBytes(count);
+        } else if (count < 0) {
+            reporter.flush();
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            reporter.flush();
+        }
+    }
+}
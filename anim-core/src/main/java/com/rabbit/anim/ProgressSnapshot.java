@@ -0,0 +1,178 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 进度动画引擎状态快照
+ * <p>
+ * 包含当前进度、目标进度、执行中的动画段（已执行比例、时长、速度过渡曲线）与待播放的关键帧，
+ * 用于配置变更、进程重建后无缝继续动画。二进制格式以变长整数编码，常见状态仅十余字节。
+ * 不包含时长、插值器等配置，恢复前需按原配置创建引擎。
+ */
+public final class ProgressSnapshot {
+    /**
+     * 格式版本
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * 不含动画段时长的格式版本
+     */
+    private static final int VERSION_1 = 1;
+
+    /**
+     * 未记录动画段时长
+     */
+    static final long UNKNOWN_DURATION = -1;
+
+    private static final int FLAG_SEGMENT_RUNNING = 1;
+    private static final int FLAG_BLENDING = 1 << 1;
+    private static final int FLAG_FINISH_DISPATCHED = 1 << 2;
+
+    private static final long[] NO_KEYFRAMES = new long[0];
+
+    final long max;
+    final long progress;
+    final long progressStart;
+    final long progressEnd;
+    final long target;
+    final boolean segmentRunning;
+    final float elapsedFraction;
+    final long segmentDurationNanos;
+    final boolean blending;
+    final double blendStart;
+    final double blendTangent;
+    final boolean finishDispatched;
+    @NonNull
+    final long[] keyframes;
+
+    ProgressSnapshot(long max, long progress, long progressStart, long progressEnd, long target,
+                     boolean segmentRunning, float elapsedFraction, long segmentDurationNanos, boolean blending,
+                     double blendStart,
+                     double blendTangent, boolean finishDispatched, @NonNull long[] keyframes) {
+        this.max = max;
+        this.progress = progress;
+        this.progressStart = progressStart;
+        this.progressEnd = progressEnd;
+        this.target = target;
+        this.segmentRunning = segmentRunning;
+        this.elapsedFraction = elapsedFraction;
+        this.segmentDurationNanos = segmentDurationNanos;
+        this.blending = blending;
+        this.blendStart = blendStart;
+        this.blendTangent = blendTangent;
+        this.finishDispatched = finishDispatched;
+        this.keyframes = keyframes;
+    }
+
+    /**
+     * 获取保存时的进度值
+     *
+     * @return 进度值
+     */
+    public long getProgress() {
+        return progress;
+    }
+
+    /**
+     * 获取保存时的最新目标进度值
+     *
+     * @return 目标进度值
+     */
+    public long getTarget() {
+        return target;
+    }
+
+    /**
+     * 获取执行中动画段的已执行比例
+     *
+     * @return 已执行比例，没有执行中的动画段时为1
+     */
+    public float getElapsedFraction() {
+        return segmentRunning ? elapsedFraction : 1f;
+    }
+
+    /**
+     * 编码为字节数组
+     *
+     * @return 字节数组
+     */
+    @NonNull
+    public byte[] toByteArray() {
+        ByteArrayWriter writer = new ByteArrayWriter();
+        int flags = (segmentRunning ? FLAG_SEGMENT_RUNNING : 0)
+                | (blending ? FLAG_BLENDING : 0)
+                | (finishDispatched ? FLAG_FINISH_DISPATCHED : 0);
+        writer.writeByte(VERSION);
+        writer.writeByte(flags);
+        writer.writeVarLong(max);
+        writer.writeVarLong(progress);
+        writer.writeVarLong(target);
+        if (segmentRunning) {
+            writer.writeVarLong(progressStart);
+            writer.writeVarLong(progressEnd);
+            writer.writeInt(Float.floatToIntBits(elapsedFraction));
+            writer.writeVarLong(segmentDurationNanos);
+            if (blending) {
+                writer.writeLong(Double.doubleToLongBits(blendStart));
+                writer.writeLong(Double.doubleToLongBits(blendTangent));
+            }
+        }
+        writer.writeVarLong(keyframes.length);
+        for (long keyframe : keyframes) {
+            writer.writeVarLong(keyframe);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * 从字节数组解码
+     *
+     * @param bytes 由{@link #toByteArray()}编码的字节数组
+     * @return 状态快照
+     * @throws IllegalArgumentException 格式不正确
+     */
+    @NonNull
+    public static ProgressSnapshot fromByteArray(@NonNull byte[] bytes) {
+        ByteArrayReader reader = new ByteArrayReader(bytes);
+        int version = reader.readByte();
+        if (version != VERSION && version != VERSION_1) {
+            throw new IllegalArgumentException("unsupported snapshot version: " + version);
+        }
+        int flags = reader.readByte();
+        boolean segmentRunning = (flags & FLAG_SEGMENT_RUNNING) != 0;
+        boolean blending = segmentRunning && (flags & FLAG_BLENDING) != 0;
+        long max = reader.readVarLong();
+        long progress = reader.readVarLong();
+        long target = reader.readVarLong();
+        long progressStart = progress;
+        long progressEnd = progress;
+        float elapsedFraction = 1f;
+        long segmentDurationNanos = UNKNOWN_DURATION;
+        double blendStart = 0;
+        double blendTangent = 0;
+        if (segmentRunning) {
+            progressStart = reader.readVarLong();
+            progressEnd = reader.readVarLong();
+            elapsedFraction = Float.intBitsToFloat(reader.readInt());
+            if (version != VERSION_1) {
+                segmentDurationNanos = reader.readVarLong();
+            }
+            if (blending) {
+                blendStart = Double.longBitsToDouble(reader.readLong());
+                blendTangent = Double.longBitsToDouble(reader.readLong());
+            }
+        }
+        long count = reader.readVarLong();
+        if (count < 0 || count > reader.remaining()) {
+            throw new IllegalArgumentException("corrupt snapshot");
+        }
+        long[] keyframes = count == 0 ? NO_KEYFRAMES : new long[(int) count];
+        for (int i = 0; i < keyframes.length; i++) {
+            keyframes[i] = reader.readVarLong();
+        }
+        return new ProgressSnapshot(max, progress, progressStart, progressEnd, target, segmentRunning,
+                elapsedFraction, segmentDurationNanos, blending, blendStart, blendTangent, (flags & FLAG_FINISH_DISPATCHED) != 0,
+                keyframes);
+    }
+}
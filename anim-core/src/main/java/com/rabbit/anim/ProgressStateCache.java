@@ -0,0 +1,100 @@
+package com.rabbit.anim;
+
+import androidx.annotation.IntRange;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按稳定ID缓存的进度状态
+ * <p>
+ * 列表项回收时保存其目标进度，重新绑定时据此直接恢复，不从0开始重新播放动画。
+ * 按最近使用顺序淘汰，容量有上限。非线程安全，仅限帧线程使用。
+ */
+public final class ProgressStateCache {
+    /**
+     * 默认容量
+     */
+    public static final int DEFAULT_CAPACITY = 512;
+
+    /**
+     * 稳定ID与进度值，按访问顺序排列
+     */
+    private final LinkedHashMap<Long, Long> states;
+
+    public ProgressStateCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 容量。数值需要大于0
+     */
+    public ProgressStateCache(@IntRange(from = 1) int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        states = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 保存进度值
+     *
+     * @param stableId 稳定ID
+     * @param progress 进度值
+     */
+    public void put(long stableId, long progress) {
+        states.put(stableId, progress);
+    }
+
+    /**
+     * 获取进度值
+     *
+     * @param stableId     稳定ID
+     * @param defaultValue 未缓存时的返回值
+     * @return 进度值
+     */
+    public long get(long stableId, long defaultValue) {
+        Long progress = states.get(stableId);
+        return progress != null ? progress : defaultValue;
+    }
+
+    /**
+     * 是否缓存了进度值
+     *
+     * @param stableId 稳定ID
+     * @return 是否已缓存
+     */
+    public boolean contains(long stableId) {
+        return states.containsKey(stableId);
+    }
+
+    /**
+     * 移除进度值
+     *
+     * @param stableId 稳定ID
+     */
+    public void remove(long stableId) {
+        states.remove(stableId);
+    }
+
+    /**
+     * 获取缓存数量
+     *
+     * @return 缓存数量
+     */
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        states.clear();
+    }
+}
@@ -0,0 +1,194 @@
+package com.rabbit.anim;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 进度流
+ * <p>
+ * 以发布-订阅方式输出进度值，接口形式与{@code java.util.concurrent.Flow}一致，可在Java 8及低版本Android使用。
+ * 每个订阅者只保留最新进度值，按{@link Subscription#request(long)}的需求量在指定线程投递，
+ * 慢订阅者收到合并后的最新值；可设置采样间隔，间隔内的进度值合并到下一次投递。
+ * 整条链路不存在无界队列：每个订阅者至多一个待投递值、一个待执行任务。
+ */
+public final class ProgressStream implements ProgressAnimInterface.OnLongProgressChangeListener {
+    /**
+     * 进度流在引擎中注册的监听器Key
+     */
+    public static final String LISTENER_KEY = "com.rabbit.anim.ProgressStream";
+
+    private static final ConflatingSubscription[] EMPTY = new ConflatingSubscription[0];
+
+    /**
+     * 帧调度器，提供时间与采样帧回调
+     */
+    @NonNull
+    private final FrameScheduler scheduler;
+
+    /**
+     * 订阅快照。写入由this保护
+     */
+    private volatile ConflatingSubscription[] subscriptions = EMPTY;
+
+    /**
+     * 是否已结束
+     */
+    private volatile boolean completed;
+
+    /**
+     * 创建并注册到进度动画引擎
+     *
+     * @param engine 进度动画引擎
+     */
+    public ProgressStream(@NonNull ProgressEngine engine) {
+        this.scheduler = engine.getScheduler();
+        engine.registerOnProgressListener(LISTENER_KEY, this);
+    }
+
+    /**
+     * 订阅，每次进度变化都参与投递
+     *
+     * @param subscriber 订阅者
+     * @param executor   投递线程
+     */
+    public void subscribe(@NonNull Subscriber subscriber, @NonNull Executor executor) {
+        subscribe(subscriber, executor, 0L);
+    }
+
+    /**
+     * 订阅
+     *
+     * @param subscriber           订阅者
+     * @param executor             投递线程
+     * @param sampleIntervalMillis 采样间隔(毫秒)，间隔内的进度值合并到下一次投递。为0时不采样
+     */
+    public void subscribe(@NonNull Subscriber subscriber, @NonNull Executor executor,
+                          @IntRange(from = 0) long sampleIntervalMillis) {
+        ConflatingSubscription subscription = new ConflatingSubscription(this, scheduler, subscriber, executor,
+                Math.max(0L, sampleIntervalMillis) * 1_000_000L);
+        subscriber.onSubscribe(subscription);
+        synchronized (this) {
+            if (subscription.isCancelled()) {
+                // 订阅者在onSubscribe中取消
+                return;
+            }
+            if (!completed) {
+                ConflatingSubscription[] current = subscriptions;
+                ConflatingSubscription[] next = new ConflatingSubscription[current.length + 1];
+                System.arraycopy(current, 0, next, 0, current.length);
+                next[current.length] = subscription;
+                subscriptions = next;
+                return;
+            }
+        }
+        subscription.complete();
+    }
+
+    /**
+     * 获取订阅者数量
+     *
+     * @return 订阅者数量
+     */
+    public int getSubscriberCount() {
+        return subscriptions.length;
+    }
+
+    /**
+     * 结束进度流，通知所有订阅者。通常在进度动画释放时调用
+     */
+    public void complete() {
+        ConflatingSubscription[] current;
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            current = subscriptions;
+            subscriptions = EMPTY;
+        }
+        for (ConflatingSubscription subscription : current) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * 移除订阅
+     *
+     * @param subscription 订阅
+     */
+    synchronized void remove(@NonNull ConflatingSubscription subscription) {
+        ConflatingSubscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                ConflatingSubscription[] next = new ConflatingSubscription[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                subscriptions = current.length == 1 ? EMPTY : next;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onChange(long progress, double fraction) {
+        ConflatingSubscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            current[i].offer(progress);
+        }
+    }
+
+    @Override
+    public void onFinish() {
+        // 结束时的进度值已通过onChange投递
+    }
+
+    /**
+     * 订阅者，方法在投递线程串行调用
+     */
+    public interface Subscriber {
+        /**
+         * 订阅成功，在订阅线程调用，需通过{@link Subscription#request(long)}声明需求量
+         *
+         * @param subscription 订阅
+         */
+        void onSubscribe(@NonNull Subscription subscription);
+
+        /**
+         * 进度值，投递数量不超过需求量
+         *
+         * @param progress 最新进度值
+         */
+        void onNext(long progress);
+
+        /**
+         * 订阅异常终止，如需求量不合法或投递线程拒绝任务
+         *
+         * @param throwable 异常
+         */
+        void onError(@NonNull Throwable throwable);
+
+        /**
+         * 进度流结束
+         */
+        void onComplete();
+    }
+
+    /**
+     * 订阅
+     */
+    public interface Subscription {
+        /**
+         * 增加需求量
+         *
+         * @param n 需求量。数值需要大于0，{@link Long#MAX_VALUE}表示不限
+         */
+        void request(long n);
+
+        /**
+         * 取消订阅
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,305 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 进度动画调用轨迹记录器
+ * <p>
+ * 通过Builder或{@link ProgressEngine#setTraceRecorder(ProgressTraceRecorder)}开启后，记录引擎配置与
+ * animateTo、animateOver、监听器注册、取消注册的调用顺序与时间，由{@link ProgressTraceReplay}在JVM上确定性回放。
+ * 轨迹为紧凑的二进制格式：时间精确到微秒，以相邻调用的间隔变长编码，监听器Key首次出现时定义、之后以编号引用，
+ * 一次调用通常只占3~6字节。超出容量后停止记录并标记为已截断。
+ * 一个记录器同时只能绑定一个引擎，轨迹总是对应单个引擎的调用序列。各方法可在任意线程调用。
+ */
+public final class ProgressTraceRecorder {
+    /**
+     * 默认容量(字节)
+     */
+    public static final int DEFAULT_MAX_BYTES = 1 << 20;
+
+    /**
+     * 格式版本
+     */
+    static final int VERSION = 2;
+
+    /**
+     * 配置只含最大进度、时长与重定向方式的格式版本
+     */
+    static final int VERSION_1 = 1;
+
+    static final int OP_CONFIG = 0;
+    static final int OP_ANIMATE_TO = 1;
+    static final int OP_ANIMATE_OVER = 2;
+    static final int OP_DEFINE_KEY = 3;
+    static final int OP_REGISTER = 4;
+    static final int OP_UNREGISTER = 5;
+    static final int OP_UNREGISTER_ALL = 6;
+
+    /**
+     * 配置项在配置记录中的下标
+     */
+    static final int CONFIG_MAX = 0;
+    static final int CONFIG_DURATION_NANOS = 1;
+    static final int CONFIG_RETARGET_MODE = 2;
+    static final int CONFIG_DURATION_MODE = 3;
+    static final int CONFIG_MIN_ADAPTIVE_DURATION_NANOS = 4;
+    static final int CONFIG_MAX_ADAPTIVE_DURATION_NANOS = 5;
+    static final int CONFIG_DISPATCH_MODE = 6;
+    static final int CONFIG_QUANTIZE_STEP_BITS = 7;
+    static final int CONFIG_MIN_VISIBLE_DELTA_BITS = 8;
+    static final int CONFIG_MAX_UPDATE_RATE = 9;
+    static final int CONFIG_KEYFRAME_QUEUE_DEPTH = 10;
+    static final int CONFIG_KEYFRAME_QUEUE_POLICY = 11;
+
+    /**
+     * 配置项数量
+     */
+    static final int CONFIG_FIELDS = 12;
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * 单条记录的最大长度(字节)，不含Key：操作码、间隔、配置项数量与各配置项
+     */
+    private static final int MAX_EVENT_BYTES = 1 + 10 * (2 + CONFIG_FIELDS);
+
+    /**
+     * 容量(字节)
+     */
+    private final int maxBytes;
+
+    /**
+     * 轨迹数据。由this保护
+     */
+    private final ByteArrayWriter writer = new ByteArrayWriter(256);
+
+    /**
+     * 已定义的监听器Key编号
+     */
+    private final Map<String, Integer> keyIds = new HashMap<>();
+
+    /**
+     * 上一条记录的时间(微秒)
+     */
+    private long lastMicros;
+
+    /**
+     * 是否已有记录
+     */
+    private boolean started;
+
+    /**
+     * 是否因超出容量停止记录
+     */
+    private boolean truncated;
+
+    /**
+     * 记录数量
+     */
+    private int eventCount;
+
+    /**
+     * 绑定的引擎。由this保护
+     */
+    @Nullable
+    private Object owner;
+
+    /**
+     * 上次记录的配置。由this保护
+     */
+    @Nullable
+    private long[] lastConfig;
+
+    public ProgressTraceRecorder() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * @param maxBytes 容量(字节)。数值需要大于0
+     */
+    public ProgressTraceRecorder(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        writer.writeByte(VERSION);
+    }
+
+    /**
+     * 绑定引擎
+     *
+     * @param engine 引擎
+     * @throws IllegalStateException 已绑定其他引擎
+     */
+    synchronized void bind(@NonNull Object engine) {
+        if (owner != null && owner != engine) {
+            throw new IllegalStateException("trace recorder is already bound to another engine");
+        }
+        owner = engine;
+    }
+
+    /**
+     * 解除绑定，之后可绑定其他引擎
+     *
+     * @param engine 引擎。不是当前绑定的引擎时忽略
+     */
+    synchronized void unbind(@NonNull Object engine) {
+        if (owner == engine) {
+            owner = null;
+        }
+    }
+
+    /**
+     * 记录引擎配置，与上次记录的配置相同时忽略
+     *
+     * @param config 按CONFIG_*下标排列的配置项，浮点数以其二进制位记录
+     */
+    synchronized void recordConfig(long nanos, @NonNull long[] config) {
+        if (Arrays.equals(config, lastConfig)) {
+            return;
+        }
+        lastConfig = config;
+        if (begin(OP_CONFIG, nanos, 0)) {
+            writer.writeVarLong(config.length);
+            for (long value : config) {
+                writer.writeVarLong(value);
+            }
+        }
+    }
+
+    /**
+     * 记录animateTo调用
+     */
+    synchronized void recordAnimateTo(long nanos, long value) {
+        if (begin(OP_ANIMATE_TO, nanos, 0)) {
+            writer.writeVarLong(value);
+        }
+    }
+
+    /**
+     * 记录animateOver调用
+     */
+    synchronized void recordAnimateOver(long nanos, long delta) {
+        if (begin(OP_ANIMATE_OVER, nanos, 0)) {
+            writer.writeVarLong(delta);
+        }
+    }
+
+    /**
+     * 记录监听器注册
+     */
+    synchronized void recordRegister(long nanos, @NonNull String key) {
+        Integer id = keyIds.get(key);
+        if (id == null) {
+            byte[] bytes = key.getBytes(UTF_8);
+            if (!begin(OP_DEFINE_KEY, nanos, bytes.length)) {
+                return;
+            }
+            id = keyIds.size();
+            keyIds.put(key, id);
+            writer.writeBytes(bytes);
+        }
+        if (begin(OP_REGISTER, nanos, 0)) {
+            writer.writeVarLong(id);
+        }
+    }
+
+    /**
+     * 记录取消注册
+     *
+     * @param key 键。为null时表示取消注册所有监听器
+     */
+    synchronized void recordUnregister(long nanos, @Nullable String key) {
+        if (key == null) {
+            begin(OP_UNREGISTER_ALL, nanos, 0);
+            return;
+        }
+        Integer id = keyIds.get(key);
+        if (id != null && begin(OP_UNREGISTER, nanos, 0)) {
+            writer.writeVarLong(id);
+        }
+    }
+
+    /**
+     * 写入记录头：操作码与距上一条记录的间隔
+     *
+     * @param extraBytes 记录体中变长数据的长度
+     * @return 是否继续写入记录体。超出容量时返回false
+     */
+    private boolean begin(int op, long nanos, int extraBytes) {
+        if (truncated) {
+            return false;
+        }
+        if (writer.size() + MAX_EVENT_BYTES + extraBytes > maxBytes) {
+            truncated = true;
+            return false;
+        }
+        // 多个线程的时间戳在进入锁之前读取，可能略有乱序，按记录顺序单调处理
+        long micros = nanos / 1000;
+        long delta = started ? Math.max(0L, micros - lastMicros) : 0L;
+        if (!started || micros > lastMicros) {
+            lastMicros = micros;
+        }
+        started = true;
+        writer.writeByte(op);
+        writer.writeVarLong(delta);
+        eventCount++;
+        return true;
+    }
+
+    /**
+     * 获取记录数量
+     *
+     * @return 记录数量
+     */
+    public synchronized int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * 获取轨迹长度
+     *
+     * @return 轨迹长度(字节)
+     */
+    public synchronized int size() {
+        return writer.size();
+    }
+
+    /**
+     * 是否因超出容量停止记录
+     *
+     * @return 是否已截断
+     */
+    public synchronized boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * 导出轨迹，可保存为文件后用{@link ProgressTraceReplay}回放
+     *
+     * @return 轨迹数据
+     */
+    @NonNull
+    public synchronized byte[] toByteArray() {
+        return writer.toByteArray();
+    }
+
+    /**
+     * 清空已记录的轨迹，继续记录。之后的轨迹不包含引擎配置，回放时使用默认配置
+     */
+    public synchronized void clear() {
+        writer.clear();
+        writer.writeByte(VERSION);
+        keyIds.clear();
+        lastConfig = null;
+        started = false;
+        truncated = false;
+        eventCount = 0;
+    }
+}
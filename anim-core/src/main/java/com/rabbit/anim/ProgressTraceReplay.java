@@ -0,0 +1,397 @@
+package com.rabbit.anim;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 调用轨迹回放
+ * <p>
+ * 按{@link ProgressTraceRecorder}记录的配置、调用顺序与时间，在{@link ManualFrameScheduler}上确定性地重放，
+ * 统计每帧耗时与动画重新开始次数，可将线上记录的轨迹作为性能回归基准。
+ * 回放时每个注册的监听器Key对应同一个空监听器，统计的是引擎自身的开销；插值器不在轨迹中，默认为线性。
+ */
+public final class ProgressTraceReplay {
+    /**
+     * 轨迹结束后最多推进的帧数
+     */
+    private static final int MAX_DRAIN_FRAMES = 1_000_000;
+
+    private static final ProgressAnimInterface.OnLongProgressChangeListener SINK =
+            new ProgressAnimInterface.OnLongProgressChangeListener() {
+                @Override
+                public void onChange(long progress, double fraction) {
+                }
+
+                @Override
+                public void onFinish() {
+                }
+            };
+
+    /**
+     * 各记录的时间(纳秒)，从0开始
+     */
+    private final long[] times;
+
+    /**
+     * 各记录的操作码
+     */
+    private final int[] ops;
+
+    /**
+     * 各记录的参数
+     */
+    private final long[][] args;
+
+    /**
+     * 监听器Key，下标即编号
+     */
+    private final List<String> keys = new ArrayList<>();
+
+    /**
+     * 帧间隔(纳秒)
+     */
+    private long frameIntervalNanos = ManualFrameScheduler.DEFAULT_FRAME_INTERVAL_NANOS;
+
+    /**
+     * 插值器
+     */
+    @NonNull
+    private ProgressInterpolator interpolator = ProgressInterpolator.LINEAR;
+
+    /**
+     * 监听器
+     */
+    @NonNull
+    private ProgressAnimInterface.OnLongProgressChangeListener listener = SINK;
+
+    /**
+     * @param trace 由{@link ProgressTraceRecorder#toByteArray()}导出的轨迹
+     * @throws IllegalArgumentException 格式不正确
+     */
+    public ProgressTraceReplay(@NonNull byte[] trace) {
+        ByteArrayReader reader = new ByteArrayReader(trace);
+        int version = reader.readByte();
+        if (version != ProgressTraceRecorder.VERSION && version != ProgressTraceRecorder.VERSION_1) {
+            throw new IllegalArgumentException("unsupported trace version: " + version);
+        }
+        List<long[]> argList = new ArrayList<>();
+        long[] times = new long[16];
+        int[] ops = new int[16];
+        int count = 0;
+        long now = 0;
+        while (reader.hasRemaining()) {
+            int op = reader.readByte();
+            now += reader.readVarLong() * 1000;
+            long[] arg;
+            switch (op) {
+                case ProgressTraceRecorder.OP_CONFIG:
+                    long fields = version == ProgressTraceRecorder.VERSION_1 ? 3 : reader.readVarLong();
+                    if (fields < 0 || fields > reader.remaining()) {
+                        throw new IllegalArgumentException("corrupt config: " + fields);
+                    }
+                    arg = new long[(int) fields];
+                    for (int i = 0; i < arg.length; i++) {
+                        arg[i] = reader.readVarLong();
+                    }
+                    break;
+                case ProgressTraceRecorder.OP_ANIMATE_TO:
+                case ProgressTraceRecorder.OP_ANIMATE_OVER:
+                    arg = new long[]{reader.readVarLong()};
+                    break;
+                case ProgressTraceRecorder.OP_DEFINE_KEY:
+                    keys.add(new String(reader.readBytes(), ProgressTraceRecorder.UTF_8));
+                    continue;
+                case ProgressTraceRecorder.OP_REGISTER:
+                case ProgressTraceRecorder.OP_UNREGISTER:
+                    long id = reader.readVarLong();
+                    if (id < 0 || id >= keys.size()) {
+                        throw new IllegalArgumentException("undefined key id: " + id);
+                    }
+                    arg = new long[]{id};
+                    break;
+                case ProgressTraceRecorder.OP_UNREGISTER_ALL:
+                    arg = null;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown op: " + op);
+            }
+            if (count == ops.length) {
+                times = Arrays.copyOf(times, count << 1);
+                ops = Arrays.copyOf(ops, count << 1);
+            }
+            times[count] = now;
+            ops[count] = op;
+            argList.add(arg);
+            count++;
+        }
+        this.times = Arrays.copyOf(times, count);
+        this.ops = Arrays.copyOf(ops, count);
+        this.args = argList.toArray(new long[0][]);
+    }
+
+    /**
+     * 设置回放帧间隔
+     *
+     * @param frameIntervalNanos 帧间隔(纳秒)，默认为60Hz。数值需要大于0
+     * @return 当前实例以链式调用
+     */
+    @NonNull
+    public ProgressTraceReplay setFrameIntervalNanos(long frameIntervalNanos) {
+        if (frameIntervalNanos <= 0) {
+            throw new IllegalArgumentException("frameIntervalNanos must be positive: " + frameIntervalNanos);
+        }
+        this.frameIntervalNanos = frameIntervalNanos;
+        return this;
+    }
+
+    /**
+     * 设置回放插值器
+     *
+     * @param interpolator 插值器，默认为线性
+     * @return 当前实例以链式调用
+     */
+    @NonNull
+    public ProgressTraceReplay setInterpolator(@NonNull ProgressInterpolator interpolator) {
+        this.interpolator = interpolator;
+        return this;
+    }
+
+    /**
+     * 设置回放时注册的监听器，用于模拟线上监听器的开销
+     *
+     * @param listener 监听器，默认为空监听器
+     * @return 当前实例以链式调用
+     */
+    @NonNull
+    public ProgressTraceReplay setListener(@NonNull ProgressAnimInterface.OnLongProgressChangeListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * 获取记录数量，不含监听器Key定义
+     *
+     * @return 记录数量
+     */
+    public int getEventCount() {
+        return ops.length;
+    }
+
+    /**
+     * 回放一次。每次回放使用新的引擎与调度器，结果可重复
+     *
+     * @return 回放报告
+     */
+    @NonNull
+    public Report run() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler(frameIntervalNanos);
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        ProgressAnimMetrics metrics = new ProgressAnimMetrics();
+        engine.setInterpolator(interpolator);
+        engine.setMetrics(metrics);
+        FrameCosts costs = new FrameCosts();
+        for (int i = 0; i < ops.length; i++) {
+            // 调用在其时间之后的第一帧生效
+            while (scheduler.nanoTime() + frameIntervalNanos <= times[i]) {
+                costs.runFrame(scheduler, metrics);
+            }
+            apply(engine, ops[i], args[i]);
+        }
+        // 轨迹结束后推进到动画结束
+        for (int i = 0; i < MAX_DRAIN_FRAMES; i++) {
+            scheduler.runPendingTasks();
+            if (!engine.isRunning()) {
+                break;
+            }
+            costs.runFrame(scheduler, metrics);
+        }
+        ProgressAnimMetrics.Snapshot snapshot = metrics.snapshot();
+        Report report = new Report(ops.length, costs, snapshot, engine.getProgress());
+        engine.release();
+        return report;
+    }
+
+    private void apply(@NonNull ProgressEngine engine, int op, long[] arg) {
+        switch (op) {
+            case ProgressTraceRecorder.OP_CONFIG:
+                applyConfig(engine, arg);
+                break;
+            case ProgressTraceRecorder.OP_ANIMATE_TO:
+                engine.animateTo(arg[0]);
+                break;
+            case ProgressTraceRecorder.OP_ANIMATE_OVER:
+                engine.animateOver(arg[0]);
+                break;
+            case ProgressTraceRecorder.OP_REGISTER:
+                engine.registerOnProgressListener(keys.get((int) arg[0]), listener);
+                break;
+            case ProgressTraceRecorder.OP_UNREGISTER:
+                engine.unregisterOnProgressListener(keys.get((int) arg[0]));
+                break;
+            case ProgressTraceRecorder.OP_UNREGISTER_ALL:
+                engine.unregisterAllOnProgressListener();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 应用记录的配置。旧版本轨迹缺少的配置项保持引擎默认值
+     *
+     * @param config 按CONFIG_*下标排列的配置项
+     */
+    private static void applyConfig(@NonNull ProgressEngine engine, @NonNull long[] config) {
+        if (config.length < 3) {
+            throw new IllegalArgumentException("corrupt config: " + config.length);
+        }
+        engine.setMax(config[ProgressTraceRecorder.CONFIG_MAX]);
+        engine.setDuration(config[ProgressTraceRecorder.CONFIG_DURATION_NANOS] / 1_000_000L);
+        engine.setRetargetMode((int) config[ProgressTraceRecorder.CONFIG_RETARGET_MODE]);
+        if (config.length < ProgressTraceRecorder.CONFIG_FIELDS) {
+            return;
+        }
+        engine.setDurationMode((int) config[ProgressTraceRecorder.CONFIG_DURATION_MODE]);
+        engine.setAdaptiveDurationRange(config[ProgressTraceRecorder.CONFIG_MIN_ADAPTIVE_DURATION_NANOS] / 1_000_000L,
+                config[ProgressTraceRecorder.CONFIG_MAX_ADAPTIVE_DURATION_NANOS] / 1_000_000L);
+        engine.setDispatchMode((int) config[ProgressTraceRecorder.CONFIG_DISPATCH_MODE]);
+        engine.setQuantizeStep(Float.intBitsToFloat((int) config[ProgressTraceRecorder.CONFIG_QUANTIZE_STEP_BITS]));
+        engine.setMinVisibleDelta(Float.intBitsToFloat((int) config[ProgressTraceRecorder.CONFIG_MIN_VISIBLE_DELTA_BITS]));
+        engine.setMaxUpdateRate((int) config[ProgressTraceRecorder.CONFIG_MAX_UPDATE_RATE]);
+        // 设置关键帧队列会清空队列，只在其配置变化时设置，其他配置项变化时不影响已排队的关键帧
+        long[] current = engine.traceConfig();
+        int depth = (int) config[ProgressTraceRecorder.CONFIG_KEYFRAME_QUEUE_DEPTH];
+        int policy = (int) config[ProgressTraceRecorder.CONFIG_KEYFRAME_QUEUE_POLICY];
+        if (depth != current[ProgressTraceRecorder.CONFIG_KEYFRAME_QUEUE_DEPTH]
+                || policy != current[ProgressTraceRecorder.CONFIG_KEYFRAME_QUEUE_POLICY]) {
+            engine.setKeyframeQueue(depth, policy);
+        }
+    }
+
+    /**
+     * 执行了动画的帧的耗时
+     */
+    private static final class FrameCosts {
+        long[] nanos = new long[256];
+        int count;
+        long total;
+
+        void runFrame(@NonNull ManualFrameScheduler scheduler, @NonNull ProgressAnimMetrics metrics) {
+            long before = metrics.framesDispatched.sum() + metrics.framesSkipped.sum();
+            long start = System.nanoTime();
+            scheduler.doFrame();
+            long cost = System.nanoTime() - start;
+            // 只统计引擎执行了动画的帧
+            if (metrics.framesDispatched.sum() + metrics.framesSkipped.sum() != before) {
+                if (count == nanos.length) {
+                    nanos = Arrays.copyOf(nanos, count << 1);
+                }
+                nanos[count++] = cost;
+                total += cost;
+            }
+        }
+
+        long percentile(@NonNull long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(sorted.length * percentile / 100);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+    }
+
+    /**
+     * 回放报告
+     */
+    public static final class Report {
+        /**
+         * 回放的记录数量
+         */
+        public final int events;
+
+        /**
+         * 执行了动画的帧数
+         */
+        public final int frames;
+
+        /**
+         * 通知了监听器的帧数
+         */
+        public final long framesDispatched;
+
+        /**
+         * 动画重新开始次数
+         */
+        public final long restarts;
+
+        /**
+         * 实际提交到帧线程的任务数
+         */
+        public final long postsExecuted;
+
+        /**
+         * 被合并、未提交的请求数
+         */
+        public final long postsCoalesced;
+
+        /**
+         * 帧总耗时(纳秒)
+         */
+        public final long totalFrameNanos;
+
+        /**
+         * 帧耗时中位数(纳秒)
+         */
+        public final long p50FrameNanos;
+
+        /**
+         * 帧耗时99分位(纳秒)
+         */
+        public final long p99FrameNanos;
+
+        /**
+         * 最大帧耗时(纳秒)
+         */
+        public final long maxFrameNanos;
+
+        /**
+         * 回放结束时的进度值
+         */
+        public final long finalProgress;
+
+        Report(int events, @NonNull FrameCosts costs, @NonNull ProgressAnimMetrics.Snapshot snapshot, long finalProgress) {
+            long[] sorted = Arrays.copyOf(costs.nanos, costs.count);
+            Arrays.sort(sorted);
+            this.events = events;
+            this.frames = costs.count;
+            this.framesDispatched = snapshot.framesDispatched;
+            this.restarts = snapshot.restarts;
+            this.postsExecuted = snapshot.postsExecuted;
+            this.postsCoalesced = snapshot.postsCoalesced;
+            this.totalFrameNanos = costs.total;
+            this.p50FrameNanos = costs.percentile(sorted, 50);
+            this.p99FrameNanos = costs.percentile(sorted, 99);
+            this.maxFrameNanos = sorted.length > 0 ? sorted[sorted.length - 1] : 0;
+            this.finalProgress = finalProgress;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "ProgressTraceReplay.Report{events=" + events
+                    + ", frames=" + frames
+                    + ", framesDispatched=" + framesDispatched
+                    + ", restarts=" + restarts
+                    + ", postsExecuted=" + postsExecuted
+                    + ", postsCoalesced=" + postsCoalesced
+                    + ", totalFrameNanos=" + totalFrameNanos
+                    + ", p50FrameNanos=" + p50FrameNanos
+                    + ", p99FrameNanos=" + p99FrameNanos
+                    + ", maxFrameNanos=" + maxFrameNanos
+                    + ", finalProgress=" + finalProgress + '}';
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.rabbit.anim;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 带进度的文件传输
+ * <p>
+ * 基于{@link FileChannel#transferTo(long, long, WritableByteChannel)}分块传输，
+ * 数据不经过用户态缓冲区，每块传输完成后上报一次进度。
+ */
+public final class ProgressTransfer {
+    /**
+     * 默认分块大小，兼顾零拷贝效率与进度粒度
+     */
+    public static final long DEFAULT_CHUNK_BYTES = 1L << 20;
+
+    private ProgressTransfer() {
+    }
+
+    /**
+     * 复制文件，进度动画的最大进度对应文件大小
+     *
+     * @param source 源文件
+     * @param target 目标文件，已存在时覆盖
+     * @param anim   进度动画
+     * @param max    进度动画的最大进度
+     * @return 复制的字节数
+     * @throws IOException 读写失败
+     */
+    public static long copy(@NonNull File source, @NonNull File target, @NonNull ProgressAnimInterface anim,
+                            @IntRange(from = 1) int max) throws IOException {
+        try (FileInputStream in = new FileInputStream(source);
+             FileOutputStream out = new FileOutputStream(target)) {
+            FileChannel src = in.getChannel();
+            long size = src.size();
+            if (size == 0) {
+                anim.animateTo(max);
+                return 0;
+            }
+            return transferTo(src, 0, size, out.getChannel(), new ByteProgressReporter(anim, max, size),
+                    DEFAULT_CHUNK_BYTES);
+        }
+    }
+
+    /**
+     * 分块传输通道数据
+     *
+     * @param source     源通道
+     * @param position   起始位置
+     * @param count      传输字节数
+     * @param target     目标通道。需要为阻塞模式，非阻塞通道暂时无法写入时无法与源通道结束区分
+     * @param reporter   字节进度上报器，总字节数通常与count一致
+     * @param chunkBytes 分块大小。数值需要大于0
+     * @return 传输的字节数，源通道提前结束时小于count
+     * @throws IOException              读写失败，或源通道未结束时目标通道未写入任何数据
+     * @throws IllegalArgumentException 目标通道为非阻塞模式
+     */
+    public static long transferTo(@NonNull FileChannel source, long position, long count,
+                                  @NonNull WritableByteChannel target, @NonNull ByteProgressReporter reporter,
+                                  @IntRange(from = 1) long chunkBytes) throws IOException {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("chunkBytes must be positive");
+        }
+        if (target instanceof SelectableChannel && !((SelectableChannel) target).isBlocking()) {
+            throw new IllegalArgumentException("target must be in blocking mode");
+        }
+        long transferred = 0;
+        try {
+            while (transferred < count) {
+                long n = source.transferTo(position + transferred, Math.min(chunkBytes, count - transferred), target);
+                if (n <= 0) {
+                    // transferTo返回0既可能是源通道已到末尾，也可能是目标通道未写入，按源通道大小区分
+                    if (position + transferred >= source.size()) {
+                        break;
+                    }
+                    throw new IOException("target accepted no bytes at position " + (position + transferred));
+                }
+                transferred += n;
+                reporter.onBytes(n);
+            }
+        } finally {
+            reporter.flush();
+        }
+        return transferred;
+    }
+}
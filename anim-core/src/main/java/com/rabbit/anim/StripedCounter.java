@@ -0,0 +1,86 @@
+package com.rabbit.anim;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分段计数器
+ * <p>
+ * 与LongAdder思路相同：不同线程累加到不同的、按缓存行隔开的槽位，读取时求和，
+ * 高并发累加时避免在同一个原子变量上竞争。LongAdder需要API 24，本类兼容更低版本。
+ */
+public final class StripedCounter {
+    /**
+     * 槽位间隔，8个long即64字节，避免伪共享
+     */
+    private static final int PADDING = 8;
+
+    /**
+     * 槽位数量减1，槽位数量为2的幂
+     */
+    private final int mask;
+
+    /**
+     * 槽位
+     */
+    private final AtomicLongArray cells;
+
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * @param stripes 期望的槽位数量，向上取整为2的幂
+     */
+    public StripedCounter(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        mask = size - 1;
+        cells = new AtomicLongArray(size * PADDING);
+    }
+
+    /**
+     * 加1
+     */
+    public void increment() {
+        add(1L);
+    }
+
+    /**
+     * 累加
+     *
+     * @param delta 增量
+     */
+    public void add(long delta) {
+        cells.getAndAdd(index(), delta);
+    }
+
+    /**
+     * 求和。并发累加时结果不保证是某一时刻的精确快照
+     *
+     * @return 计数值
+     */
+    public long sum() {
+        long sum = 0L;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * 清零
+     */
+    public void reset() {
+        for (int i = 0; i <= mask; i++) {
+            cells.set(i * PADDING, 0L);
+        }
+    }
+
+    /**
+     * 当前线程对应的槽位下标
+     */
+    private int index() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+        return (hash & mask) * PADDING;
+    }
+}
@@ -0,0 +1,227 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * ByteProgressReporter及I/O适配器测试
+ */
+public class ByteProgressReporterTest {
+    @Test
+    public void onBytes_reportsOnlyWhenProgressChanges() {
+        RecordingAnim anim = new RecordingAnim();
+        ByteProgressReporter reporter = new ByteProgressReporter(anim, 100, 1_000_000L).setMinInterval(0);
+        // 每块100字节，每10000字节进度加1
+        for (int i = 0; i < 10_000; i++) {
+            reporter.onBytes(100);
+        }
+        assertEquals(100, anim.targets.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, (int) anim.targets.get(i));
+        }
+        reporter.flush();
+        assertEquals(100, anim.targets.size());
+    }
+
+    @Test
+    public void onBytes_isSampledByInterval() {
+        RecordingAnim anim = new RecordingAnim();
+        ByteProgressReporter reporter = new ByteProgressReporter(anim, 100, 100L).setMinInterval(60_000);
+        for (int i = 0; i < 99; i++) {
+            reporter.onBytes(1);
+        }
+        // 间隔内只上报第一次变化
+        assertEquals(Arrays.asList(1), anim.targets);
+        reporter.flush();
+        assertEquals(Arrays.asList(1, 99), anim.targets);
+    }
+
+    @Test
+    public void byteExactScale_isSampledByInterval() {
+        ProgressEngine engine = new ProgressEngine(new ManualFrameScheduler());
+        engine.setMax(1_000_000L);
+        ByteProgressReporter reporter = new ByteProgressReporter(engine, 1_000_000L).setMinInterval(60_000);
+        // 每个数据块都改变进度值，间隔内仍只上报第一次，之后的数据块按估计的字节数跳过时钟读取
+        for (int i = 0; i < 9_999; i++) {
+            reporter.onBytes(100);
+            assertEquals(100L, engine.getTarget());
+        }
+        reporter.onBytes(100);
+        reporter.flush();
+        assertEquals(1_000_000L, engine.getTarget());
+    }
+
+    @Test
+    public void largeTotals_doNotOverflow() {
+        RecordingAnim anim = new RecordingAnim();
+        long total = 1L << 40;
+        ByteProgressReporter reporter = new ByteProgressReporter(anim, Integer.MAX_VALUE, total).setMinInterval(0);
+        reporter.onBytes(total / 2);
+        reporter.onBytes(total / 2);
+        assertEquals(Arrays.asList(Integer.MAX_VALUE / 2, Integer.MAX_VALUE), anim.targets);
+    }
+
+    @Test
+    public void streams_countReadAndWrittenBytes() throws IOException {
+        byte[] data = new byte[10_000];
+        RecordingAnim readAnim = new RecordingAnim();
+        RecordingAnim writeAnim = new RecordingAnim();
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (InputStream in = new ProgressInputStream(new ByteArrayInputStream(data),
+                new ByteProgressReporter(readAnim, 100, data.length).setMinInterval(0));
+             OutputStream out = new ProgressOutputStream(sink,
+                     new ByteProgressReporter(writeAnim, 100, data.length).setMinInterval(0))) {
+            byte[] buffer = new byte[1000];
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, count);
+            }
+        }
+        assertEquals(data.length, sink.size());
+        assertEquals(Arrays.asList(10, 20, 30, 40, 50, 60, 70, 80, 90, 100), readAnim.targets);
+        assertEquals(readAnim.targets, writeAnim.targets);
+    }
+
+    @Test
+    public void channel_reportsFinalProgressAtEnd() throws IOException {
+        RecordingAnim anim = new RecordingAnim();
+        ByteProgressReporter reporter = new ByteProgressReporter(anim, 100, 4096).setMinInterval(60_000);
+        try (ReadableByteChannel channel = new ProgressReadableByteChannel(
+                Channels.newChannel(new ByteArrayInputStream(new byte[4096])), reporter)) {
+            ByteBuffer buffer = ByteBuffer.allocate(512);
+            while (channel.read(buffer) >= 0) {
+                buffer.clear();
+            }
+        }
+        assertEquals(4096, reporter.getBytes());
+        assertEquals(100, anim.last());
+    }
+
+    @Test
+    public void copy_transfersFileAndReachesMax() throws IOException {
+        File source = File.createTempFile("source", null);
+        source.deleteOnExit();
+        byte[] data = new byte[3 * 1024 * 1024 + 17];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        try (FileOutputStream out = new FileOutputStream(source)) {
+            out.write(data);
+        }
+        File target = File.createTempFile("target", null);
+        target.deleteOnExit();
+        RecordingAnim anim = new RecordingAnim();
+
+        assertEquals(data.length, ProgressTransfer.copy(source, target, anim, 1000));
+        assertArrayEquals(data, Files.readAllBytes(target.toPath()));
+        assertEquals(1000, anim.last());
+        // 每块上报至多一次
+        assertTrue(anim.targets.size() <= 5);
+    }
+
+    @Test
+    public void transferTo_distinguishesEndOfSourceFromStalledTarget() throws IOException {
+        File source = File.createTempFile("source", null);
+        source.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(source)) {
+            out.write(new byte[1000]);
+        }
+        try (FileInputStream in = new FileInputStream(source)) {
+            FileChannel channel = in.getChannel();
+            // 源通道提前结束时返回实际传输的字节数
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            ByteProgressReporter reporter = new ByteProgressReporter(new RecordingAnim(), 100, 2000);
+            assertEquals(1000, ProgressTransfer.transferTo(channel, 0, 2000, Channels.newChannel(sink), reporter, 256));
+            assertEquals(1000, sink.size());
+
+            // 目标通道不接收数据时不当作源通道结束
+            WritableByteChannel stalled = new WritableByteChannel() {
+                @Override
+                public int write(ByteBuffer src) {
+                    return 0;
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+            try {
+                ProgressTransfer.transferTo(channel, 0, 1000, stalled,
+                        new ByteProgressReporter(new RecordingAnim(), 100, 1000), 256);
+                fail("stalled target must not be reported as end of source");
+            } catch (IOException expected) {
+            }
+
+            Pipe pipe = Pipe.open();
+            try {
+                pipe.sink().configureBlocking(false);
+                ProgressTransfer.transferTo(channel, 0, 1000, pipe.sink(),
+                        new ByteProgressReporter(new RecordingAnim(), 100, 1000), 256);
+                fail("non-blocking target must be rejected");
+            } catch (IllegalArgumentException expected) {
+            } finally {
+                pipe.sink().close();
+                pipe.source().close();
+            }
+        }
+    }
+
+    private static final class RecordingAnim implements ProgressAnimInterface {
+        final List<Integer> targets = new ArrayList<>();
+
+        int last() {
+            return targets.get(targets.size() - 1);
+        }
+
+        @Override
+        public void animateTo(int animateTo) {
+            targets.add(animateTo);
+        }
+
+        @Override
+        public void animateOver(int animateOver) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void registerOnProgressListener(String key, OnProgressChangeListener listener) {
+        }
+
+        @Override
+        public void unregisterOnProgressListener(String key) {
+        }
+
+        @Override
+        public void unregisterAllOnProgressListener() {
+        }
+
+        @Override
+        public void release() {
+        }
+    }
+}
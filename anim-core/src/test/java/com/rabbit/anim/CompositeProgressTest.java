@@ -0,0 +1,117 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * CompositeProgress测试
+ */
+public class CompositeProgressTest {
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler();
+
+    @Test
+    public void weightedChildren_sampleOncePerFrame() {
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        CompositeProgress composite = new CompositeProgress(engine);
+        CompositeProgress.Child large = composite.newChild(3000, 3);
+        CompositeProgress.Child small = composite.newChild(10, 1);
+
+        large.add(1000);
+        large.add(500);
+        small.add(5);
+        // 帧前的多次更新只提交一次采样任务
+        assertEquals(1, scheduler.runPendingTasks());
+        scheduler.doFrame();
+        assertEquals(50, engine.getTarget());
+
+        large.complete();
+        scheduler.doFrame();
+        assertEquals(87, engine.getTarget());
+        assertEquals(0.875, composite.getFraction(), 1e-6);
+
+        small.complete();
+        scheduler.runUntilIdle(100);
+        assertEquals(100, engine.getTarget());
+        assertEquals(100, engine.getProgress());
+    }
+
+    @Test
+    public void thousandsOfChildren_fromManyThreads_reachMax() throws InterruptedException {
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(10_000);
+        CompositeProgress composite = new CompositeProgress(engine);
+        int childCount = 4096;
+        CompositeProgress.Child[] children = new CompositeProgress.Child[childCount];
+        for (int i = 0; i < childCount; i++) {
+            children[i] = composite.newChild(1_000 + i, 1_000 + i);
+        }
+        int threadCount = 16;
+        CountDownLatch done = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            int offset = t;
+            new Thread(() -> {
+                // 每个子任务由多个线程分块累加
+                for (int i = 0; i < childCount; i++) {
+                    CompositeProgress.Child child = children[(i + offset * 97) % childCount];
+                    long share = child.getTotal() / threadCount;
+                    long extra = offset == 0 ? child.getTotal() - share * threadCount : 0;
+                    child.add(share / 2);
+                    child.add(share - share / 2 + extra);
+                }
+                done.countDown();
+            }).start();
+        }
+        while (done.getCount() > 0) {
+            scheduler.doFrame();
+        }
+        scheduler.runUntilIdle(1_000);
+        assertEquals(1d, composite.getFraction(), 0d);
+        assertEquals(10_000, engine.getTarget());
+    }
+
+    @Test
+    public void release_stopsSampling() {
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        CompositeProgress composite = new CompositeProgress(engine);
+        CompositeProgress.Child child = composite.newChild(10, 1);
+        composite.release();
+        child.complete();
+        scheduler.runUntilIdle(100);
+        assertEquals(0, engine.getTarget());
+        assertEquals(0, scheduler.getFrameCallbackCount());
+    }
+
+    @Test
+    public void totalWeightOverflow_isRejected() {
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        CompositeProgress composite = new CompositeProgress(engine);
+        long partBytes = 4L << 30;
+        CompositeProgress.Child first = composite.newChild(partBytes, CompositeProgress.MAX_TOTAL_WEIGHT / 2);
+        CompositeProgress.Child second = composite.newChild(partBytes, CompositeProgress.MAX_TOTAL_WEIGHT / 4);
+        try {
+            composite.newChild(partBytes, CompositeProgress.MAX_TOTAL_WEIGHT / 2);
+            fail("total weight overflow must be rejected");
+        } catch (IllegalArgumentException expected) {
+            // 拒绝后不影响已有子任务
+        }
+        try {
+            composite.newChild(partBytes, Double.POSITIVE_INFINITY);
+            fail("infinite weight must be rejected");
+        } catch (IllegalArgumentException expected) {
+            // 拒绝后不影响已有子任务
+        }
+
+        first.complete();
+        scheduler.runUntilIdle(100);
+        assertEquals(2 / 3d, composite.getFraction(), 1e-9);
+        second.complete();
+        scheduler.runUntilIdle(100);
+        assertEquals(1d, composite.getFraction(), 1e-9);
+        assertEquals(100, engine.getTarget());
+    }
+}
@@ -0,0 +1,106 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * ConflatingProgressListener测试
+ */
+public class ConflatingProgressListenerTest {
+
+    @Test
+    public void conflatesToLatestValueWithSinglePendingTask() {
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        RecordingListener delegate = new RecordingListener();
+        ConflatingProgressListener listener = new ConflatingProgressListener(delegate, tasks::add);
+
+        for (int i = 1; i <= 1000; i++) {
+            listener.onChange(i);
+        }
+        assertEquals(1, tasks.size());
+
+        tasks.poll().run();
+        assertEquals("[1000]", delegate.events.toString());
+    }
+
+    @Test
+    public void finishIsDeliveredAfterItsValue() {
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        RecordingListener delegate = new RecordingListener();
+        ConflatingProgressListener listener = new ConflatingProgressListener(delegate, tasks::add);
+
+        listener.onChange(50);
+        listener.onChange(100);
+        listener.onFinish();
+        // 结束之后的新一轮动画
+        listener.onChange(60);
+        assertEquals(1, tasks.size());
+
+        tasks.poll().run();
+        assertEquals("[100, finish, 60]", delegate.events.toString());
+    }
+
+    @Test
+    public void backgroundDelivery_isSerialAndEndsWithFinish() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        RecordingListener delegate = new RecordingListener();
+        ConflatingProgressListener listener = new ConflatingProgressListener(delegate, executor);
+
+        for (int i = 1; i <= 100_000; i++) {
+            listener.onChange(i);
+        }
+        listener.onFinish();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<Object> events = delegate.snapshot();
+        assertEquals("finish", events.get(events.size() - 1));
+        assertEquals(100_000, events.get(events.size() - 2));
+        // 串行投递，进度值单调递增
+        for (int i = 1; i < events.size() - 1; i++) {
+            assertTrue((Integer) events.get(i) > (Integer) events.get(i - 1));
+        }
+        assertFalse(delegate.concurrent);
+    }
+
+    private static class RecordingListener implements ProgressAnimInterface.OnProgressChangeListener {
+        final List<Object> events = new ArrayList<>();
+        private volatile boolean delivering;
+        volatile boolean concurrent;
+
+        @Override
+        public void onChange(int progress) {
+            record(progress);
+        }
+
+        @Override
+        public void onFinish() {
+            record("finish");
+        }
+
+        private void record(Object event) {
+            if (delivering) {
+                concurrent = true;
+            }
+            delivering = true;
+            synchronized (events) {
+                events.add(event);
+            }
+            delivering = false;
+        }
+
+        List<Object> snapshot() {
+            synchronized (events) {
+                return new ArrayList<>(events);
+            }
+        }
+    }
+}
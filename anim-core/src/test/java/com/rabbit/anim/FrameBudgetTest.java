@@ -0,0 +1,157 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 帧预算与监听器优先级测试：用忙等模拟慢监听器，校验高优先级监听器每帧通知、
+ * 低优先级监听器推迟后补发最新进度与结束通知，以及推迟次数统计
+ */
+public class FrameBudgetTest {
+    private static final long FRAME_NANOS = 10_000_000L;
+
+    private static final long BUDGET_NANOS = 1_000_000L;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+
+    private ProgressEngine newEngine(FrameBudget budget, ProgressAnimMetrics metrics) {
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        engine.setDuration(100);
+        engine.setFrameBudget(budget);
+        engine.setMetrics(metrics);
+        return engine;
+    }
+
+    @Test
+    public void slowLowPriorityListeners_areDeferredAndRotated() {
+        ProgressAnimMetrics metrics = new ProgressAnimMetrics();
+        ProgressEngine engine = newEngine(new FrameBudget(BUDGET_NANOS), metrics);
+        RecordingListener ui = new RecordingListener(0);
+        RecordingListener slowA = new RecordingListener(2 * BUDGET_NANOS);
+        RecordingListener slowB = new RecordingListener(2 * BUDGET_NANOS);
+        engine.registerOnProgressListener("slowA", slowA, ProgressAnimInterface.PRIORITY_LOW);
+        engine.registerOnProgressListener("slowB", slowB, ProgressAnimInterface.PRIORITY_LOW);
+        engine.registerOnProgressListener("ui", ui, ProgressAnimInterface.PRIORITY_HIGH);
+
+        engine.animateTo(100);
+        int frames = scheduler.runUntilIdle(100);
+
+        // 高优先级监听器每帧通知，不受注册顺序影响
+        assertEquals(11, ui.values.size());
+        assertEquals(1, ui.finishes);
+        // 每帧只能执行一个慢监听器，两者轮流执行，动画结束后继续补发
+        assertTrue(slowA.values.size() < ui.values.size());
+        assertTrue(slowB.values.size() < ui.values.size());
+        assertTrue(frames > 11);
+        for (RecordingListener slow : new RecordingListener[]{slowA, slowB}) {
+            assertEquals(100L, (long) slow.values.get(slow.values.size() - 1));
+            assertEquals(1, slow.finishes);
+            for (int i = 1; i < slow.values.size(); i++) {
+                assertTrue(slow.values.get(i) >= slow.values.get(i - 1));
+            }
+        }
+        ProgressAnimMetrics.Snapshot snapshot = metrics.snapshot();
+        assertTrue(snapshot.listenersDeferred > 0);
+        assertTrue(snapshot.framesOverBudget > 0);
+        assertEquals(snapshot.listenersDeferred, (long) snapshot.toMap().get("listenersDeferred"));
+        assertFalse(engine.isRunning());
+    }
+
+    @Test
+    public void sharedBudget_highPriorityAlwaysRuns() {
+        FrameBudget budget = new FrameBudget(BUDGET_NANOS);
+        ProgressAnimMetrics metrics = new ProgressAnimMetrics();
+        ProgressEngine first = newEngine(budget, null);
+        ProgressEngine second = newEngine(budget, metrics);
+        RecordingListener slowUi = new RecordingListener(2 * BUDGET_NANOS);
+        RecordingListener ui = new RecordingListener(0);
+        RecordingListener log = new RecordingListener(0);
+        first.registerOnProgressListener("ui", slowUi);
+        second.registerOnProgressListener("ui", ui);
+        second.registerOnProgressListener("log", log, ProgressAnimInterface.PRIORITY_LOW);
+
+        first.animateTo(100);
+        second.animateTo(100);
+        scheduler.runUntilIdle(100);
+
+        // 第一个引擎用完本帧预算，第二个引擎的高优先级监听器仍每帧通知，低优先级监听器被推迟
+        assertEquals(11, slowUi.values.size());
+        assertEquals(11, ui.values.size());
+        assertTrue(log.values.size() < ui.values.size());
+        assertEquals(100L, (long) log.values.get(log.values.size() - 1));
+        assertEquals(1, log.finishes);
+        assertTrue(metrics.snapshot().listenersDeferred > 0);
+    }
+
+    @Test
+    public void deferredFinish_isDeliveredBeforeNewRound() {
+        ProgressEngine engine = newEngine(new FrameBudget(BUDGET_NANOS), null);
+        engine.setDuration(0);
+        RecordingListener slowUi = new RecordingListener(2 * BUDGET_NANOS);
+        RecordingListener log = new RecordingListener(0);
+        engine.registerOnProgressListener("ui", slowUi);
+        engine.registerOnProgressListener("log", log, ProgressAnimInterface.PRIORITY_LOW);
+
+        engine.animateTo(100);
+        scheduler.doFrame();
+        assertEquals(1, slowUi.finishes);
+        assertTrue(log.values.isEmpty());
+
+        // 补发前开始新一轮动画：先补发最大进度与结束，再通知最新进度
+        engine.animateTo(50);
+        scheduler.runUntilIdle(10);
+        assertEquals(1, log.finishes);
+        assertEquals(100L, (long) log.values.get(0));
+        assertEquals(50L, (long) log.values.get(log.values.size() - 1));
+        assertEquals(1, log.finishIndex);
+    }
+
+    @Test
+    public void withoutBudget_lowPriorityRunsEveryFrame() {
+        ProgressEngine engine = newEngine(null, null);
+        RecordingListener slow = new RecordingListener(2 * BUDGET_NANOS);
+        RecordingListener ui = new RecordingListener(0);
+        engine.registerOnProgressListener("slow", slow, ProgressAnimInterface.PRIORITY_LOW);
+        engine.registerOnProgressListener("ui", ui);
+
+        engine.animateTo(100);
+        scheduler.runUntilIdle(100);
+
+        assertEquals(ui.values, slow.values);
+        assertEquals(1, slow.finishes);
+    }
+
+    /**
+     * 记录进度值，每次通知忙等指定时间以模拟慢监听器
+     */
+    private static final class RecordingListener implements ProgressAnimInterface.OnLongProgressChangeListener {
+        final List<Long> values = new ArrayList<>();
+        final long costNanos;
+        int finishes;
+        int finishIndex = -1;
+
+        RecordingListener(long costNanos) {
+            this.costNanos = costNanos;
+        }
+
+        @Override
+        public void onChange(long progress, double fraction) {
+            values.add(progress);
+            long end = System.nanoTime() + costNanos;
+            while (System.nanoTime() < end) {
+                // 忙等
+            }
+        }
+
+        @Override
+        public void onFinish() {
+            finishes++;
+            finishIndex = values.size();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.rabbit.anim;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延迟直方图，可在多个线程并发记录
+ * <p>
+ * 按2的幂分桶，每个桶再等分为8个子桶，相对误差不超过12.5%
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+    /**
+     * 记录一次延迟
+     *
+     * @param nanos 延迟(纳秒)
+     */
+    void record(long nanos) {
+        counts.incrementAndGet(index(Math.max(0L, nanos)));
+    }
+
+    long count() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * 获取百分位延迟
+     *
+     * @param percentile 百分位，取值(0,100]
+     * @return 该百分位所在桶的上界(纳秒)，没有记录时为0
+     */
+    long percentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length() - 1);
+    }
+
+    private static int index(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "n=" + count()
+                + " p50=" + percentile(50) / 1000 + "us"
+                + " p90=" + percentile(90) / 1000 + "us"
+                + " p99=" + percentile(99) / 1000 + "us"
+                + " max=" + percentile(100) / 1000 + "us";
+    }
+}
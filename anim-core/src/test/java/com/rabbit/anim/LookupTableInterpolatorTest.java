@@ -0,0 +1,51 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * LookupTableInterpolator测试
+ */
+public class LookupTableInterpolatorTest {
+    private static final ProgressInterpolator ACCELERATE_DECELERATE =
+            input -> (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+
+    private static final ProgressInterpolator OVERSHOOT = input -> {
+        float t = input - 1.0f;
+        return t * t * (3.0f * t + 2.0f) + 1.0f;
+    };
+
+    @Test
+    public void bakedTable_staysWithinErrorBound() {
+        assertMaxError(ACCELERATE_DECELERATE, LookupTableInterpolator.DEFAULT_RESOLUTION, 1e-4f);
+        assertMaxError(OVERSHOOT, LookupTableInterpolator.DEFAULT_RESOLUTION, 1e-4f);
+        assertMaxError(OVERSHOOT, 32, 5e-3f);
+    }
+
+    @Test
+    public void bakedTable_hitsEndpointsExactly() {
+        LookupTableInterpolator table = LookupTableInterpolator.bake(OVERSHOOT, 16);
+        assertEquals(OVERSHOOT.getInterpolation(0f), table.getInterpolation(0f), 0f);
+        assertEquals(OVERSHOOT.getInterpolation(1f), table.getInterpolation(1f), 0f);
+        assertEquals(OVERSHOOT.getInterpolation(1f), table.getInterpolation(1.5f), 0f);
+    }
+
+    @Test
+    public void of_sharesTablesPerSourceAndResolution() {
+        ProgressInterpolator source = input -> input * input;
+        assertSame(LookupTableInterpolator.of(source, 64), LookupTableInterpolator.of(source, 64));
+        assertNotSame(LookupTableInterpolator.of(source, 64), LookupTableInterpolator.of(source, 128));
+        assertNotSame(LookupTableInterpolator.of(source, 64), LookupTableInterpolator.of(input -> input * input, 64));
+    }
+
+    private static void assertMaxError(ProgressInterpolator source, int resolution, float bound) {
+        LookupTableInterpolator table = LookupTableInterpolator.bake(source, resolution);
+        float maxError = 0f;
+        for (int i = 0; i <= 100_000; i++) {
+            float input = i / 100_000f;
+            maxError = Math.max(maxError, Math.abs(source.getInterpolation(input) - table.getInterpolation(input)));
+        }
+        assertTrue("max error " + maxError + " exceeds " + bound, maxError <= bound);
+    }
+}
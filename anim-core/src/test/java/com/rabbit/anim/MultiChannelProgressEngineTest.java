@@ -0,0 +1,121 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * MultiChannelProgressEngine测试
+ */
+public class MultiChannelProgressEngineTest {
+    private static final long FRAME_NANOS = 10_000_000L;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+
+    @Test
+    public void channels_shareOneFrameCallbackAndOneDispatch() {
+        MultiChannelProgressEngine engine = new MultiChannelProgressEngine(scheduler, 2);
+        engine.setDuration(100);
+        engine.setMax(1, 1000);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnChannelsChangeListener("test", listener);
+
+        engine.animateTo(0, 50);
+        engine.animateTo(1, 800);
+        scheduler.doFrame();
+        assertEquals(1, scheduler.getFrameCallbackCount());
+        scheduler.advance(5 * FRAME_NANOS);
+        assertEquals(25, engine.getProgress(0));
+        assertEquals(400, engine.getProgress(1));
+        assertEquals(0.4, engine.getFraction(1), 1e-9);
+
+        scheduler.runUntilIdle(100);
+        assertEquals(50, engine.getProgress(0));
+        assertEquals(800, engine.getProgress(1));
+        // 每帧一次回调，同时包含两个通道的值
+        assertEquals(11, listener.frames.size());
+        assertArrayEquals(new long[]{50, 800}, listener.frames.get(10));
+        assertFalse(engine.isRunning());
+    }
+
+    @Test
+    public void channels_retargetIndependently() {
+        MultiChannelProgressEngine engine = new MultiChannelProgressEngine(scheduler, 2);
+        engine.setDuration(100);
+        engine.animateTo(0, 100);
+        engine.animateTo(1, 40);
+        scheduler.doFrame();
+        scheduler.advance(5 * FRAME_NANOS);
+        // 只重定向通道1，通道0继续原来的动画
+        engine.animateTo(1, 90);
+        scheduler.doFrame();
+        assertEquals(60, engine.getProgress(0));
+        assertEquals(20, engine.getProgress(1));
+        scheduler.advance(4 * FRAME_NANOS);
+        assertEquals(100, engine.getProgress(0));
+        assertEquals(20 + 70 * 4 / 10, engine.getProgress(1));
+        scheduler.runUntilIdle(100);
+        assertEquals(90, engine.getProgress(1));
+    }
+
+    @Test
+    public void finish_isNotifiedOncePerChannel() throws InterruptedException {
+        MultiChannelProgressEngine engine = new MultiChannelProgressEngine(scheduler, 3);
+        engine.setDuration(50);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnChannelsChangeListener("test", listener);
+
+        Thread[] threads = new Thread[60];
+        for (int i = 0; i < threads.length; i++) {
+            int channel = i % 3;
+            threads[i] = new Thread(() -> engine.animateOver(channel, 5));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        scheduler.runUntilIdle(1000);
+
+        for (int channel = 0; channel < 3; channel++) {
+            assertEquals(100, engine.getProgress(channel));
+        }
+        assertEquals("[0, 1, 2]", listener.finishes.toString());
+        engine.animateOver(1, 10);
+        scheduler.runUntilIdle(1000);
+        assertEquals("[0, 1, 2]", listener.finishes.toString());
+    }
+
+    @Test
+    public void release_stopsFrames() {
+        MultiChannelProgressEngine engine = new MultiChannelProgressEngine(scheduler, 2);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnChannelsChangeListener("test", listener);
+        engine.animateTo(0, 100);
+        scheduler.doFrame();
+        scheduler.doFrame();
+        int dispatched = listener.frames.size();
+
+        engine.release();
+        scheduler.runUntilIdle(1000);
+        assertEquals(dispatched, listener.frames.size());
+        assertEquals(0, scheduler.getFrameCallbackCount());
+    }
+
+    static class RecordingListener implements MultiChannelProgressEngine.OnChannelsChangeListener {
+        final List<long[]> frames = new ArrayList<>();
+        final List<Integer> finishes = new ArrayList<>();
+
+        @Override
+        public void onChange(long[] progress, double[] fractions) {
+            frames.add(progress.clone());
+        }
+
+        @Override
+        public void onFinish(int channel) {
+            finishes.add(channel);
+        }
+    }
+}
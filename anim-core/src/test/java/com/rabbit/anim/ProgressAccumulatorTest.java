@@ -0,0 +1,105 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressAccumulator并发测试
+ */
+public class ProgressAccumulatorTest {
+    private static final int PRODUCERS = 64;
+    private static final int INCREMENTS = 10_000;
+
+    @Test
+    public void concurrentAdd_loseNoIncrements() throws InterruptedException {
+        ProgressAccumulator accumulator = new ProgressAccumulator();
+        AtomicInteger posts = new AtomicInteger();
+        AtomicInteger consumes = new AtomicInteger();
+        AtomicInteger maxOutstanding = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(PRODUCERS);
+
+        for (int i = 0; i < PRODUCERS; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < INCREMENTS; j++) {
+                    accumulator.add(1);
+                    if (accumulator.requestRetarget()) {
+                        // 消费者先计数再清除标志，提交时未消费的请求最多只有本次这一个
+                        int outstanding = posts.incrementAndGet() - consumes.get();
+                        int observed;
+                        while (outstanding > (observed = maxOutstanding.get())
+                                && !maxOutstanding.compareAndSet(observed, outstanding)) {
+                        }
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+
+        // 模拟主线程：按帧节奏消费重定向请求，两帧之间的请求应被合并
+        long[] lastConsumed = new long[1];
+        Thread consumer = new Thread(() -> {
+            while (done.getCount() > 0 || consumes.get() < posts.get()) {
+                if (consumes.get() < posts.get()) {
+                    consumes.incrementAndGet();
+                    lastConsumed[0] = accumulator.consumeTarget();
+                }
+                LockSupport.parkNanos(100_000L);
+            }
+        });
+        consumer.start();
+        start.countDown();
+        done.await();
+        consumer.join();
+
+        long expected = (long) PRODUCERS * INCREMENTS;
+        assertEquals(expected, accumulator.get());
+        // 最后一次消费必须看到全部增量
+        assertEquals(expected, lastConsumed[0]);
+        // 请求被合并，少于调用次数，且任意时刻最多只有一个未消费的请求
+        assertTrue("posts=" + posts.get(), posts.get() < expected);
+        assertEquals(1, maxOutstanding.get());
+        assertEquals(posts.get(), consumes.get());
+    }
+
+    @Test
+    public void requestRetarget_coalescesUntilConsumed() {
+        ProgressAccumulator accumulator = new ProgressAccumulator();
+        assertTrue(accumulator.requestRetarget());
+        assertFalse(accumulator.requestRetarget());
+        accumulator.add(5);
+        assertEquals(5, accumulator.consumeTarget());
+        assertTrue(accumulator.requestRetarget());
+    }
+
+    @Test
+    public void add_clampsToMax() {
+        ProgressAccumulator accumulator = new ProgressAccumulator();
+        accumulator.setMax(200);
+        accumulator.add(150);
+        accumulator.add(100);
+        assertEquals(200, accumulator.get());
+        assertEquals(200, accumulator.set(300));
+        assertEquals(50, accumulator.set(50));
+    }
+
+    @Test
+    public void negativeTarget_clampsToZero() {
+        ProgressAccumulator accumulator = new ProgressAccumulator();
+        accumulator.setMax(200);
+        assertEquals(0, accumulator.set(-10));
+        accumulator.add(30);
+        assertEquals(0, accumulator.add(-50));
+        assertEquals(20, accumulator.add(20));
+    }
+}
@@ -0,0 +1,100 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressAnimMetrics测试
+ */
+public class ProgressAnimMetricsTest {
+    private static final long FRAME_NANOS = 10_000_000L;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+
+    @Test
+    public void counters_trackCallsPostsFramesAndRestarts() {
+        ProgressAnimMetrics metrics = new ProgressAnimMetrics();
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        engine.setDuration(100);
+        engine.setDispatchMode(ProgressAnimInterface.DISPATCH_ON_CHANGE);
+        engine.setMetrics(metrics);
+        engine.registerOnProgressListener("a", new NoopListener());
+
+        // 同一帧内的多次调用合并为一次提交
+        engine.animateTo(10);
+        engine.animateTo(30);
+        engine.animateOver(20);
+        scheduler.doFrame();
+        scheduler.advance(5 * FRAME_NANOS);
+
+        // 打断执行中的动画，重定向帧的进度值不变，不通知
+        engine.animateTo(80);
+        scheduler.doFrame();
+        scheduler.runUntilIdle(100);
+
+        ProgressAnimMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.animateToCalls);
+        assertEquals(1, snapshot.animateOverCalls);
+        assertEquals(2, snapshot.postsExecuted);
+        assertEquals(2, snapshot.postsCoalesced);
+        assertEquals(1, snapshot.restarts);
+        assertEquals(1, snapshot.framesSkipped);
+        assertEquals(1 + 5 + 10, snapshot.framesDispatched);
+        assertEquals(snapshot.framesDispatched, snapshot.listeners.get("a").calls);
+        assertTrue(snapshot.getCallRatePerSecond() > 0);
+    }
+
+    @Test
+    public void sharedMetrics_aggregateAndReset() {
+        ProgressAnimMetrics metrics = new ProgressAnimMetrics();
+        for (int i = 0; i < 3; i++) {
+            ProgressEngine engine = new ProgressEngine(scheduler);
+            engine.setMetrics(metrics);
+            engine.setDuration(50);
+            engine.registerOnProgressListener("shared", new NoopListener());
+            engine.animateTo(100);
+        }
+        scheduler.runUntilIdle(100);
+        ProgressAnimMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.animateToCalls);
+        assertEquals(3 * 6, snapshot.listeners.get("shared").calls);
+
+        metrics.reset();
+        snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.animateToCalls);
+        assertEquals(0, snapshot.framesDispatched);
+        assertTrue(snapshot.listeners.isEmpty());
+    }
+
+    @Test
+    public void stripedCounter_sumsConcurrentAdds() throws InterruptedException {
+        StripedCounter counter = new StripedCounter();
+        Thread[] threads = new Thread[16];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    counter.increment();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(16 * 10_000, counter.sum());
+        counter.reset();
+        assertEquals(0, counter.sum());
+    }
+
+    private static final class NoopListener implements ProgressAnimInterface.OnProgressChangeListener {
+        @Override
+        public void onChange(int progress) {
+        }
+
+        @Override
+        public void onFinish() {
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressDispatchFilter测试
+ */
+public class ProgressDispatchFilterTest {
+    private static final long FRAME_NANOS = 8_333_333L;
+
+    @Test
+    public void everyFrame_acceptsAll() {
+        ProgressDispatchFilter filter = new ProgressDispatchFilter();
+        assertTrue(filter.accept(1, 0L, false, false));
+        assertTrue(filter.accept(1, 0L, false, false));
+    }
+
+    @Test
+    public void onChange_skipsUnchangedValues() {
+        ProgressDispatchFilter filter = new ProgressDispatchFilter();
+        filter.setOnChangeOnly(true);
+        int accepted = 0;
+        // 长时长小增量：60帧内进度只从0变化到3
+        for (int frame = 0; frame <= 60; frame++) {
+            if (filter.accept(frame * 3 / 60, frame * FRAME_NANOS, frame == 60, false)) {
+                accepted++;
+            }
+        }
+        assertEquals(4, accepted);
+    }
+
+    @Test
+    public void pixelStep_alwaysDeliversSegmentEndAndFinish() {
+        ProgressDispatchFilter filter = new ProgressDispatchFilter();
+        filter.setOnChangeOnly(true);
+        // 进度1000对应100像素，步长为10
+        filter.setStep(1000f / 100);
+        assertTrue(filter.accept(0, 0L, false, false));
+        assertFalse(filter.accept(5, 0L, false, false));
+        assertTrue(filter.accept(10, 0L, false, false));
+        // 段末值即使在同一像素内也会通知
+        assertTrue(filter.accept(13, 0L, true, false));
+        assertFalse(filter.accept(13, 0L, true, false));
+        // 结束通知不受过滤
+        assertTrue(filter.accept(13, 0L, false, true));
+    }
+
+    @Test
+    public void maxUpdateRate_skipsFramesWithinInterval() {
+        ProgressDispatchFilter filter = new ProgressDispatchFilter();
+        // 120Hz帧率下限制为每秒30次
+        filter.setMaxUpdateRate(30);
+        int accepted = 0;
+        for (int frame = 0; frame <= 120; frame++) {
+            if (filter.accept(frame, frame * FRAME_NANOS, frame == 120, false)) {
+                accepted++;
+            }
+        }
+        // 1秒内不超过30次（受帧间隔取整），外加最终值
+        assertTrue("accepted " + accepted, accepted >= 20 && accepted <= 31);
+        assertTrue(filter.accept(120, 120 * FRAME_NANOS + 1, false, true));
+    }
+
+    @Test
+    public void minDelta_skipsInvisibleChanges() {
+        ProgressDispatchFilter filter = new ProgressDispatchFilter();
+        // 进度1000对应2像素宽的进度条，不足1像素(500)的变化不可见
+        filter.setMinDelta(1000f / 2);
+        assertTrue(filter.accept(0, 0L, false, false));
+        assertFalse(filter.accept(499, FRAME_NANOS, false, false));
+        assertTrue(filter.accept(500, 2 * FRAME_NANOS, false, false));
+        assertFalse(filter.accept(900, 3 * FRAME_NANOS, false, false));
+        // 最终值总会通知
+        assertTrue(filter.accept(1000, 4 * FRAME_NANOS, true, false));
+    }
+}
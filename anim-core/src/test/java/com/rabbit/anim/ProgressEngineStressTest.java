@@ -0,0 +1,273 @@
+package com.rabbit.anim;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressEngine并发压力测试
+ * <p>
+ * 帧线程持续驱动ManualFrameScheduler，多个线程以随机交错的方式调用animateTo、animateOver、
+ * 注册与取消注册监听器，校验最终进度、单调性与结束通知次数，并统计调用到首次通知的延迟。
+ * 随机种子可通过-Dstress.seed指定以复现失败，轮数通过-Dstress.rounds调整
+ */
+public class ProgressEngineStressTest {
+    private static final long SEED = Long.getLong("stress.seed", System.nanoTime());
+    private static final int ROUNDS = Integer.getInteger("stress.rounds", 20);
+
+    /**
+     * 帧线程的实际帧间隔，约1kHz
+     */
+    private static final long FRAME_PERIOD_NANOS = 1_000_000L;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler(10_000_000L);
+
+    private FrameThread frameThread;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (frameThread != null) {
+            frameThread.quit();
+        }
+    }
+
+    @Test
+    public void concurrentAnimateOver_isExactMonotonicAndFinishesOnce() throws Exception {
+        Random random = new Random(SEED);
+        for (int round = 0; round < ROUNDS; round++) {
+            String message = "seed=" + SEED + " round=" + round;
+            int threads = 2 + random.nextInt(99);
+            int step = 1 + random.nextInt(3);
+            ProgressEngine engine = new ProgressEngine(scheduler);
+            engine.setMax((long) threads * step);
+            engine.setDuration(random.nextInt(3) * 50L);
+            engine.setRetargetMode(random.nextInt(3));
+            FrameRecordingListener listener = new FrameRecordingListener();
+            engine.registerOnProgressListener("test", listener);
+
+            startFrameThread();
+            runConcurrently(threads, random, (index, threadRandom) -> {
+                yieldRandomly(threadRandom);
+                engine.animateOver(step);
+            });
+            frameThread.quit();
+            scheduler.runUntilIdle(10_000);
+
+            assertEquals(message, threads * step, engine.getProgress());
+            assertEquals(message, threads * step, listener.last());
+            assertEquals(message, 1, listener.finishes);
+            for (int i = 1; i < listener.values.size(); i++) {
+                assertTrue(message + " values=" + listener.values,
+                        listener.values.get(i) >= listener.values.get(i - 1));
+            }
+            engine.release();
+            scheduler.runUntilIdle(10);
+        }
+    }
+
+    @Test
+    public void randomizedOperations_settleOnLatestTarget() throws Exception {
+        Random random = new Random(SEED);
+        for (int round = 0; round < ROUNDS; round++) {
+            String message = "seed=" + SEED + " round=" + round;
+            ProgressEngine engine = new ProgressEngine(scheduler);
+            engine.setMax(1000);
+            engine.setDuration(random.nextInt(4) * 20L);
+            engine.setRetargetMode(random.nextInt(3));
+            engine.setDispatchMode(random.nextInt(2));
+            FrameRecordingListener stable = new FrameRecordingListener();
+            engine.registerOnProgressListener("stable", stable);
+
+            startFrameThread();
+            runConcurrently(8, random, (index, threadRandom) -> {
+                for (int i = 0; i < 500; i++) {
+                    int op = threadRandom.nextInt(10);
+                    if (op < 4) {
+                        engine.animateTo(threadRandom.nextInt(1200) - 100);
+                    } else if (op < 8) {
+                        engine.animateOver(threadRandom.nextInt(41) - 20);
+                    } else if (op == 8) {
+                        engine.registerOnProgressListener("churn" + threadRandom.nextInt(4), new FrameRecordingListener());
+                    } else {
+                        engine.unregisterOnProgressListener("churn" + threadRandom.nextInt(4));
+                    }
+                    yieldRandomly(threadRandom);
+                }
+            });
+            frameThread.quit();
+            engine.animateOver(0);
+            scheduler.runUntilIdle(10_000);
+
+            long target = engine.getTarget();
+            assertTrue(message, target >= 0 && target <= 1000);
+            assertEquals(message, target, engine.getProgress());
+            assertEquals(message, target, stable.last());
+            assertFalse(message, engine.isRunning());
+            engine.release();
+            scheduler.runUntilIdle(10);
+        }
+    }
+
+    @Test
+    public void callToFirstDispatch_latencyHistogram() throws Exception {
+        int threads = 8;
+        int callsPerThread = 200;
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(Long.MAX_VALUE);
+        // 时长为0：消费重定向的帧即通知目标值，延迟只包含调度与合并
+        engine.setDuration(0);
+        AtomicLong dispatched = new AtomicLong();
+        engine.registerOnProgressListener("latest", new ProgressAnimInterface.OnLongProgressChangeListener() {
+            @Override
+            public void onChange(long progress, double fraction) {
+                dispatched.set(progress);
+            }
+
+            @Override
+            public void onFinish() {
+            }
+        });
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        startFrameThread();
+        runConcurrently(threads, new Random(SEED), (index, threadRandom) -> {
+            for (int i = 0; i < callsPerThread; i++) {
+                long start = System.nanoTime();
+                engine.animateOver(1);
+                // 调用后读取的目标值包含本次增量，通知值达到该值即本次调用已生效
+                long target = engine.getTarget();
+                while (dispatched.get() < target) {
+                    Thread.yield();
+                }
+                histogram.record(System.nanoTime() - start);
+                yieldRandomly(threadRandom);
+            }
+        });
+        frameThread.quit();
+
+        assertEquals(threads * callsPerThread, histogram.count());
+        assertEquals(threads * callsPerThread, engine.getTarget());
+        // 宽松上限，仅用于发现调用被遗漏或长时间未合并到帧中
+        assertTrue(histogram.toString(), histogram.percentile(50) < 100_000_000L);
+    }
+
+    private void startFrameThread() {
+        frameThread = new FrameThread(scheduler);
+        frameThread.start();
+    }
+
+    private static void yieldRandomly(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                Thread.yield();
+                break;
+            case 1:
+                LockSupport.parkNanos(random.nextInt(20_000));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 同时启动多个线程执行任务，等待全部完成并抛出任一线程的异常
+     */
+    private static void runConcurrently(int threads, Random random, Task task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            Random threadRandom = new Random(random.nextLong());
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(index, threadRandom);
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }, "stress-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError("seed=" + SEED, failure.get());
+        }
+    }
+
+    private interface Task {
+        void run(int index, Random random) throws Exception;
+    }
+
+    /**
+     * 持续驱动ManualFrameScheduler的帧线程
+     */
+    private static final class FrameThread extends Thread {
+        private final ManualFrameScheduler scheduler;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean running = true;
+
+        FrameThread(ManualFrameScheduler scheduler) {
+            super("stress-frame");
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    scheduler.doFrame();
+                    LockSupport.parkNanos(FRAME_PERIOD_NANOS);
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        }
+
+        /**
+         * 停止帧线程，之后由测试线程接管驱动
+         */
+        void quit() throws InterruptedException {
+            running = false;
+            join();
+            if (failure.get() != null) {
+                throw new AssertionError("frame thread failed, seed=" + SEED, failure.get());
+            }
+        }
+    }
+
+    /**
+     * 在帧线程记录进度值，测试线程在帧线程结束后读取
+     */
+    private static final class FrameRecordingListener implements ProgressAnimInterface.OnLongProgressChangeListener {
+        final List<Long> values = new ArrayList<>();
+        int finishes;
+
+        @Override
+        public void onChange(long progress, double fraction) {
+            values.add(progress);
+        }
+
+        @Override
+        public void onFinish() {
+            finishes++;
+        }
+
+        long last() {
+            return values.get(values.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,460 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressEngine测试，由ManualFrameScheduler在JVM上确定性驱动
+ */
+public class ProgressEngineTest {
+    private static final long FRAME_NANOS = 10_000_000L;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+
+    private ProgressEngine newEngine(int max, long durationMillis) {
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(max);
+        engine.setDuration(durationMillis);
+        return engine;
+    }
+
+    @Test
+    public void animateTo_reachesTargetAfterDuration() {
+        ProgressEngine engine = newEngine(100, 100);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+
+        engine.animateTo(50);
+        // 第一帧消费重定向，此后10帧完成100ms的动画
+        scheduler.doFrame();
+        assertEquals(0, engine.getProgress());
+        for (int i = 1; i <= 10; i++) {
+            scheduler.doFrame();
+            assertEquals(i * 5, engine.getProgress());
+        }
+        assertEquals(50, listener.last());
+        assertFalse(engine.isRunning());
+        assertEquals(0, scheduler.getFrameCallbackCount());
+    }
+
+    @Test
+    public void retargetMidFlight_startsFromCurrentProgress() {
+        ProgressEngine engine = newEngine(200, 100);
+        engine.animateTo(100);
+        scheduler.doFrame();
+        scheduler.advance(5 * FRAME_NANOS);
+        assertEquals(50, engine.getProgress());
+
+        engine.animateTo(150);
+        scheduler.doFrame();
+        assertEquals(50, engine.getProgress());
+        scheduler.advance(10 * FRAME_NANOS);
+        assertEquals(150, engine.getProgress());
+    }
+
+    @Test
+    public void concurrentAnimateOver_reachesSumAndFinishesOnce() throws InterruptedException {
+        ProgressEngine engine = newEngine(200, 100);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+
+        Thread[] threads = new Thread[100];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> engine.animateOver(2));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        scheduler.runUntilIdle(1000);
+
+        assertEquals(200, engine.getProgress());
+        assertEquals(200, listener.last());
+        assertEquals(1, listener.finishes);
+    }
+
+    @Test
+    public void dispatchOnChange_skipsDuplicateFrames() {
+        ProgressEngine engine = newEngine(100, 1000);
+        engine.setDispatchMode(ProgressAnimInterface.DISPATCH_ON_CHANGE);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+
+        // 1000ms内只前进5个单位，约100帧
+        engine.animateTo(5);
+        scheduler.runUntilIdle(1000);
+
+        assertEquals(6, listener.values.size());
+        assertEquals(5, listener.last());
+    }
+
+    @Test
+    public void queueMode_playsKeyframesContinuously() {
+        ProgressEngine engine = newEngine(100, 100);
+        engine.setRetargetMode(ProgressAnimInterface.RETARGET_QUEUE);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+
+        engine.animateTo(10);
+        scheduler.doFrame();
+        // 后续目标在第一段执行中到达，进入关键帧队列而不重新开始
+        for (int target = 20; target <= 40; target += 10) {
+            scheduler.doFrame();
+            engine.animateTo(target);
+        }
+        scheduler.doFrame();
+        assertEquals(3, engine.getPendingKeyframeCount());
+        assertEquals(4, engine.getProgress());
+
+        // 四段首尾相接，共40帧
+        scheduler.advance(35 * FRAME_NANOS);
+        assertEquals(39, engine.getProgress());
+        assertTrue(engine.isRunning());
+        scheduler.doFrame();
+        assertEquals(40, engine.getProgress());
+        assertFalse(engine.isRunning());
+        // 进度单调递增且经过每个关键帧
+        for (int i = 1; i < listener.values.size(); i++) {
+            assertTrue(listener.values.get(i) >= listener.values.get(i - 1));
+        }
+        assertTrue(listener.values.contains(10));
+        assertTrue(listener.values.contains(20));
+        assertTrue(listener.values.contains(30));
+    }
+
+    @Test
+    public void queueMode_mergesWhenFull() {
+        ProgressEngine engine = newEngine(100, 100);
+        engine.setRetargetMode(ProgressAnimInterface.RETARGET_QUEUE);
+        engine.setKeyframeQueue(2, ProgressAnimInterface.QUEUE_MERGE_LAST);
+
+        engine.animateTo(10);
+        scheduler.doFrame();
+        for (int target = 20; target <= 60; target += 10) {
+            engine.animateTo(target);
+            scheduler.doFrame();
+        }
+        // 队列为[20, 60]，30~50合并到队尾
+        assertEquals(2, engine.getPendingKeyframeCount());
+        scheduler.runUntilIdle(1000);
+        assertEquals(60, engine.getProgress());
+    }
+
+    @Test
+    public void velocityMode_keepsPositionAndVelocityContinuous() {
+        int[] deltas = retargetDeltas(ProgressAnimInterface.RETARGET_VELOCITY);
+        // 重定向前后每帧位移（即速度）连续，且不发生跳变
+        assertEquals(500, deltas[0]);
+        assertEquals(500, deltas[1], 5);
+        assertEquals(500, deltas[2], 10);
+    }
+
+    @Test
+    public void velocityMode_adaptiveDuration_keepsVelocityContinuous() {
+        int[] deltas = retargetDeltas(ProgressAnimInterface.RETARGET_VELOCITY, ProgressAnimInterface.DURATION_ADAPTIVE);
+        // 新段时长跟随到达间隔变为约500ms，速度仍连续
+        assertEquals(500, deltas[0]);
+        assertEquals(500, deltas[1], 5);
+        assertEquals(500, deltas[2], 15);
+
+        // 段末重定向到时长为10倍的新段：换算后的切线同样受单调条件限制，不越过目标
+        ProgressEngine engine = newEngine(1000, 100);
+        engine.setRetargetMode(ProgressAnimInterface.RETARGET_VELOCITY);
+        engine.setDurationMode(ProgressAnimInterface.DURATION_ADAPTIVE);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+        engine.animateTo(400);
+        // 重定向在下一帧、即段的90%处消费
+        for (int i = 0; i < 9; i++) {
+            scheduler.doFrame();
+        }
+        engine.setAdaptiveDurationRange(1000, 3000);
+        engine.animateTo(420);
+        scheduler.runUntilIdle(1000);
+        assertNonDecreasing(listener.values);
+        assertEquals(420, listener.last());
+    }
+
+    @Test
+    public void restartMode_changesVelocityAbruptly() {
+        int[] deltas = retargetDeltas(ProgressAnimInterface.RETARGET_RESTART);
+        assertEquals(500, deltas[0]);
+        // 重新开始的第一帧停顿，之后速度突变
+        assertEquals(0, deltas[1]);
+        assertTrue(deltas[2] >= 740);
+    }
+
+    @Test
+    public void velocityMode_settlesOnTarget() {
+        ManualFrameScheduler fine = new ManualFrameScheduler(1_000_000L);
+        ProgressEngine engine = new ProgressEngine(fine);
+        engine.setMax(1000);
+        engine.setDuration(100);
+        engine.setRetargetMode(ProgressAnimInterface.RETARGET_VELOCITY);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+
+        engine.animateTo(1000);
+        fine.advance(50_000_000L);
+        // 反向重定向：先沿原方向减速，再平滑回到新目标
+        engine.animateTo(200);
+        fine.runUntilIdle(1000);
+        assertEquals(200, engine.getProgress());
+        assertEquals(200, listener.last());
+    }
+
+    @Test
+    public void velocityMode_lateRetarget_doesNotOvershoot() {
+        RecordingListener listener = lateRetarget(500, 520, ProgressAnimInterface.DURATION_FIXED);
+        assertNonDecreasing(listener.values);
+        assertEquals(520, listener.last());
+        assertEquals(0, listener.finishes);
+    }
+
+    @Test
+    public void velocityMode_lateRetargetNearMax_doesNotFinishEarly() {
+        RecordingListener listener = lateRetarget(950, 980, ProgressAnimInterface.DURATION_FIXED);
+        assertNonDecreasing(listener.values);
+        assertEquals(980, listener.last());
+        assertTrue(listener.values.indexOf(1000) < 0);
+        assertEquals(0, listener.finishes);
+    }
+
+    @Test
+    public void velocityMode_reverseRetargetNearMax_staysBelowMax() {
+        ProgressEngine engine = newEngine(1000, 300);
+        engine.setRetargetMode(ProgressAnimInterface.RETARGET_VELOCITY);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+
+        engine.animateTo(990);
+        for (int i = 0; i < 28; i++) {
+            scheduler.doFrame();
+        }
+        // 反向重定向：沿原方向减速的过程不能到达最大进度
+        engine.animateTo(500);
+        scheduler.runUntilIdle(1000);
+        assertTrue(listener.values.indexOf(1000) < 0);
+        assertEquals(500, listener.last());
+        assertEquals(0, listener.finishes);
+    }
+
+    /**
+     * 以300ms时长线性动画到first，在段末重定向到second并运行到结束
+     */
+    private RecordingListener lateRetarget(int first, int second, int durationMode) {
+        ProgressEngine engine = newEngine(1000, 300);
+        engine.setRetargetMode(ProgressAnimInterface.RETARGET_VELOCITY);
+        engine.setDurationMode(durationMode);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+
+        engine.animateTo(first);
+        // 第一帧消费重定向，此后27帧走完段的90%，切线远大于到新目标距离的3倍
+        for (int i = 0; i < 28; i++) {
+            scheduler.doFrame();
+        }
+        engine.animateTo(second);
+        scheduler.runUntilIdle(1000);
+        return listener;
+    }
+
+    private static void assertNonDecreasing(List<Integer> values) {
+        for (int i = 1; i < values.size(); i++) {
+            assertTrue("values " + values, values.get(i) >= values.get(i - 1));
+        }
+    }
+
+    /**
+     * 以1ms帧间隔匀速动画到一半时重定向，返回重定向前一帧、重定向帧、重定向后一帧的位移
+     */
+    private static int[] retargetDeltas(int retargetMode) {
+        return retargetDeltas(retargetMode, ProgressAnimInterface.DURATION_FIXED);
+    }
+
+    private static int[] retargetDeltas(int retargetMode, int durationMode) {
+        ManualFrameScheduler fine = new ManualFrameScheduler(1_000_000L);
+        ProgressEngine engine = new ProgressEngine(fine);
+        engine.setMax(1_000_000);
+        engine.setDuration(1000);
+        engine.setRetargetMode(retargetMode);
+        engine.setDurationMode(durationMode);
+
+        engine.animateTo(500_000);
+        fine.doFrame();
+        fine.advance(499_000_000L);
+        int before = (int) engine.getProgress();
+        fine.doFrame();
+        int atRetarget = (int) engine.getProgress();
+        engine.animateTo(1_000_000);
+        fine.doFrame();
+        int afterRetarget = (int) engine.getProgress();
+        fine.doFrame();
+        int next = (int) engine.getProgress();
+        return new int[]{atRetarget - before, afterRetarget - atRetarget, next - afterRetarget};
+    }
+
+    @Test
+    public void longRange_interpolatesWithoutOverflow() {
+        long max = 10L * 1024 * 1024 * 1024;
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(max);
+        engine.setDuration(100);
+        LongRecordingListener longListener = new LongRecordingListener();
+        RecordingListener intListener = new RecordingListener();
+        engine.registerOnProgressListener("long", longListener);
+        engine.registerOnProgressListener("int", intListener);
+
+        engine.animateTo(max);
+        scheduler.doFrame();
+        scheduler.advance(5 * FRAME_NANOS);
+        assertEquals(max / 2, engine.getProgress());
+        assertEquals(0.5, longListener.lastFraction, 1e-9);
+        // int视图截断到int范围
+        assertEquals(Integer.MAX_VALUE, intListener.last());
+
+        scheduler.runUntilIdle(100);
+        assertEquals(max, longListener.lastProgress);
+        assertEquals(1.0, longListener.lastFraction, 0);
+        assertEquals(1, longListener.finishes);
+        assertEquals(1, intListener.finishes);
+    }
+
+    @Test
+    public void fraction_hasSubUnitResolution() {
+        ProgressEngine engine = newEngine(10, 100);
+        LongRecordingListener listener = new LongRecordingListener();
+        engine.registerOnProgressListener("long", listener);
+        engine.animateTo(1);
+        scheduler.doFrame();
+        scheduler.advance(3 * FRAME_NANOS);
+        // 进度值仍为0，完成比例反映0.3个进度单位
+        assertEquals(0, listener.lastProgress);
+        assertEquals(0.03, listener.lastFraction, 1e-6);
+    }
+
+    @Test
+    public void resetAndJumpTo_restoreStateWithoutAnimating() {
+        ProgressEngine engine = newEngine(100, 100);
+        RecordingListener first = new RecordingListener();
+        engine.registerOnProgressListener("first", first);
+        engine.animateTo(80);
+        scheduler.doFrame();
+        scheduler.advance(3 * FRAME_NANOS);
+        ProgressStateCache cache = new ProgressStateCache(2);
+        cache.put(7L, engine.getTarget());
+
+        engine.reset();
+        assertFalse(engine.isRunning());
+        assertEquals(0, engine.getProgress());
+        assertEquals(0, engine.getTarget());
+        scheduler.runUntilIdle(100);
+        int delivered = first.values.size();
+
+        RecordingListener second = new RecordingListener();
+        engine.registerOnProgressListener("second", second);
+        engine.jumpTo(cache.get(7L, 0L));
+        assertEquals(80, engine.getProgress());
+        assertEquals("[80]", second.values.toString());
+        assertEquals(0, scheduler.runUntilIdle(100));
+        // 重置后旧监听器不再收到通知
+        assertEquals(delivered, first.values.size());
+
+        // 已完成的状态恢复后不重复通知结束
+        engine.jumpTo(100);
+        engine.animateTo(100);
+        scheduler.runUntilIdle(100);
+        assertEquals(0, second.finishes);
+    }
+
+    @Test
+    public void paused_stopsFramesAndResumeJumpsToTarget() {
+        ProgressEngine engine = newEngine(100, 100);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+        engine.animateTo(40);
+        scheduler.doFrame();
+        scheduler.advance(2 * FRAME_NANOS);
+        engine.setPaused(true);
+        assertTrue(engine.isPaused());
+        assertFalse(engine.isRunning());
+        int delivered = listener.values.size();
+
+        // 暂停期间的调用合并，不加入帧回调
+        engine.animateTo(70);
+        engine.animateTo(100);
+        scheduler.runUntilIdle(100);
+        assertEquals(0, scheduler.getFrameCallbackCount());
+        assertEquals(delivered, listener.values.size());
+
+        engine.setPaused(false);
+        assertEquals(100, engine.getProgress());
+        assertEquals(100, listener.last());
+        assertEquals(1, listener.finishes);
+        assertEquals(0, scheduler.runUntilIdle(100));
+
+        // 恢复后继续响应新目标
+        engine.animateTo(50);
+        scheduler.runUntilIdle(100);
+        assertEquals(50, engine.getProgress());
+    }
+
+    @Test
+    public void release_stopsFrames() {
+        ProgressEngine engine = newEngine(100, 100);
+        RecordingListener listener = new RecordingListener();
+        engine.registerOnProgressListener("test", listener);
+        engine.animateTo(100);
+        scheduler.doFrame();
+        scheduler.doFrame();
+        int dispatched = listener.values.size();
+        assertFalse(engine.isReleased());
+
+        engine.release();
+        assertTrue(engine.isReleased());
+        scheduler.runUntilIdle(1000);
+
+        assertEquals(dispatched, listener.values.size());
+        assertEquals(0, scheduler.getFrameCallbackCount());
+    }
+
+    static class RecordingListener implements ProgressAnimInterface.OnProgressChangeListener {
+        final List<Integer> values = new ArrayList<>();
+        int finishes;
+
+        @Override
+        public void onChange(int progress) {
+            values.add(progress);
+        }
+
+        @Override
+        public void onFinish() {
+            finishes++;
+        }
+
+        int last() {
+            return values.get(values.size() - 1);
+        }
+    }
+
+    static class LongRecordingListener implements ProgressAnimInterface.OnLongProgressChangeListener {
+        long lastProgress;
+        double lastFraction;
+        int finishes;
+
+        @Override
+        public void onChange(long progress, double fraction) {
+            lastProgress = progress;
+            lastFraction = fraction;
+        }
+
+        @Override
+        public void onFinish() {
+            finishes++;
+        }
+    }
+}
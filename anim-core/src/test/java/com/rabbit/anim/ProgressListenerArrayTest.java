@@ -0,0 +1,102 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressListenerArray测试
+ */
+public class ProgressListenerArrayTest {
+    private static final int FRAMES = 100_000;
+
+    @Test
+    public void dispatch_allocatesNothingInSteadyState() {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        ProgressListenerArray listeners = new ProgressListenerArray();
+        CountingListener[] counters = new CountingListener[10];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new CountingListener();
+            listeners.put("listener" + i, counters[i]);
+        }
+
+        // 预热，排除类加载与JIT编译的分配
+        dispatchFrames(listeners);
+        dispatchFrames(listeners);
+
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        dispatchFrames(listeners);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals("allocated bytes for " + FRAMES + " frames", 0, allocated);
+        assertEquals(3L * FRAMES, counters[0].changes);
+    }
+
+    private static void dispatchFrames(ProgressListenerArray listeners) {
+        for (int i = 0; i < FRAMES; i++) {
+            listeners.dispatch(i, i / (double) FRAMES, (i & 1023) == 0);
+        }
+    }
+
+    @Test
+    public void registerAndUnregister_rebuildSnapshot() {
+        ProgressListenerArray listeners = new ProgressListenerArray();
+        CountingListener a = new CountingListener();
+        CountingListener b = new CountingListener();
+        listeners.put("a", a);
+        listeners.put("b", b);
+        listeners.dispatch(1, 1 / 3d, false);
+        listeners.remove("a");
+        listeners.dispatch(2, 2 / 3d, true);
+        listeners.clear();
+        listeners.dispatch(3, 3 / 3d, true);
+
+        assertEquals(1, a.changes);
+        assertEquals(2, b.changes);
+        assertEquals(1, b.finishes);
+        assertEquals(2, b.lastProgress);
+        assertEquals(0, listeners.size());
+    }
+
+    @Test
+    public void priorities_orderHighBeforeLow() {
+        ProgressListenerArray listeners = new ProgressListenerArray();
+        ProgressAnimInterface.OnLongProgressChangeListener listener = IntProgressListenerAdapter.wrap(new CountingListener());
+        listeners.put("log", listener, ProgressAnimInterface.PRIORITY_LOW);
+        listeners.put("ui", listener);
+        listeners.put("text", listener, ProgressAnimInterface.PRIORITY_LOW);
+        listeners.put("bar", listener, ProgressAnimInterface.PRIORITY_HIGH);
+
+        ProgressListenerArray.Snapshot snapshot = listeners.getSnapshot();
+        assertArrayEquals(new String[]{"ui", "bar", "log", "text"}, snapshot.keys);
+        assertEquals(2, snapshot.highCount);
+
+        // 重新注册为高优先级
+        listeners.put("log", listener);
+        snapshot = listeners.getSnapshot();
+        assertArrayEquals(new String[]{"log", "ui", "bar", "text"}, snapshot.keys);
+        assertEquals(3, snapshot.highCount);
+    }
+
+    private static class CountingListener implements ProgressAnimInterface.OnProgressChangeListener {
+        long changes;
+        long finishes;
+        int lastProgress;
+
+        @Override
+        public void onChange(int progress) {
+            changes++;
+            lastProgress = progress;
+        }
+
+        @Override
+        public void onFinish() {
+            finishes++;
+        }
+    }
+}
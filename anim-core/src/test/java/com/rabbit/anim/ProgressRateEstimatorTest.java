@@ -0,0 +1,95 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressRateEstimator测试：吞吐量、剩余时间，以及自适应时长减少重新开始次数
+ */
+public class ProgressRateEstimatorTest {
+    private static final long FRAME_NANOS = 10_000_000L;
+
+    @Test
+    public void steadyArrivals_estimateThroughputAndEta() {
+        ProgressRateEstimator estimator = new ProgressRateEstimator();
+        assertEquals(ProgressRateEstimator.UNKNOWN, estimator.getEtaNanos(100));
+        for (int i = 0; i <= 10; i++) {
+            estimator.sample(i * 5L, i * 200_000_000L);
+        }
+        assertEquals(200_000_000L, estimator.getArrivalIntervalNanos());
+        assertEquals(25.0, estimator.getThroughput(), 1e-9);
+        assertEquals(2_000_000_000L, estimator.getEtaNanos(50));
+        assertEquals(0, estimator.getEtaNanos(0));
+    }
+
+    @Test
+    public void rateChange_isFollowedWithinFewHalfLives() {
+        ProgressRateEstimator estimator = new ProgressRateEstimator(100_000_000L);
+        long target = 0;
+        long nanos = 0;
+        for (int i = 0; i < 20; i++) {
+            estimator.sample(target += 10, nanos += 50_000_000L);
+        }
+        assertEquals(200.0, estimator.getThroughput(), 1e-6);
+        // 速率降为原来的1/4，经过5个半衰期后误差小于5%
+        for (int i = 0; i < 10; i++) {
+            estimator.sample(target += 10, nanos += 200_000_000L);
+        }
+        assertEquals(50.0, estimator.getThroughput(), 50.0 * 0.05);
+    }
+
+    @Test
+    public void backwardTarget_restartsEstimate() {
+        ProgressRateEstimator estimator = new ProgressRateEstimator();
+        estimator.sample(0, 0);
+        estimator.sample(50, 100_000_000L);
+        assertTrue(estimator.getThroughput() > 0);
+        estimator.sample(10, 200_000_000L);
+        assertEquals(0, estimator.getArrivalIntervalNanos());
+        assertEquals(0.0, estimator.getThroughput(), 0);
+    }
+
+    @Test
+    public void engine_exposesEtaFromArrivals() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        for (int i = 1; i <= 5; i++) {
+            engine.animateTo(i * 10);
+            scheduler.advance(100_000_000L);
+        }
+        // 每100ms到达10个单位，剩余50个单位约500ms
+        assertEquals(500, engine.getEtaMillis());
+        assertEquals(100.0, engine.getRateEstimator().getThroughput(), 1e-6);
+    }
+
+    @Test
+    public void adaptiveDuration_tracksProducerWithFewerRestarts() {
+        int fixedRestarts = restartsForSteadyProducer(ProgressAnimInterface.DURATION_FIXED);
+        int adaptiveRestarts = restartsForSteadyProducer(ProgressAnimInterface.DURATION_ADAPTIVE);
+        // 固定1秒时长时，每200ms到达的目标都会打断执行中的动画
+        assertTrue("fixed=" + fixedRestarts, fixedRestarts >= 18);
+        assertTrue("adaptive=" + adaptiveRestarts, adaptiveRestarts <= 1);
+    }
+
+    /**
+     * 进度来源每200ms前进5个单位，返回动画重新开始的次数
+     */
+    private static int restartsForSteadyProducer(int durationMode) {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressAnimMetrics metrics = new ProgressAnimMetrics();
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        engine.setDuration(1000);
+        engine.setDurationMode(durationMode);
+        engine.setMetrics(metrics);
+        for (int i = 1; i <= 20; i++) {
+            engine.animateTo(i * 5);
+            scheduler.advance(200_000_000L);
+        }
+        scheduler.runUntilIdle(1000);
+        assertEquals(100, engine.getProgress());
+        return (int) metrics.snapshot().restarts;
+    }
+}
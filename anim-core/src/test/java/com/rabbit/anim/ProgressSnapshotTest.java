@@ -0,0 +1,163 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressSnapshot测试：二进制往返与引擎恢复后的连续性
+ */
+public class ProgressSnapshotTest {
+    private static final long FRAME_NANOS = 10_000_000L;
+
+    private static ProgressEngine newEngine(ManualFrameScheduler scheduler, int retargetMode) {
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        engine.setDuration(100);
+        engine.setRetargetMode(retargetMode);
+        return engine;
+    }
+
+    @Test
+    public void byteArray_roundTripsAllFields() {
+        ProgressSnapshot snapshot = new ProgressSnapshot(10L * 1024 * 1024 * 1024, 123_456_789L, 100L, 200_000_000L,
+                -5L, true, 0.25f, 210_000_000L, true, 1.5, -2.5, true, new long[]{300, 400});
+        byte[] bytes = snapshot.toByteArray();
+        ProgressSnapshot decoded = ProgressSnapshot.fromByteArray(bytes);
+
+        assertEquals(snapshot.max, decoded.max);
+        assertEquals(snapshot.progress, decoded.progress);
+        assertEquals(snapshot.progressStart, decoded.progressStart);
+        assertEquals(snapshot.progressEnd, decoded.progressEnd);
+        assertEquals(-5L, decoded.getTarget());
+        assertTrue(decoded.segmentRunning);
+        assertEquals(0.25f, decoded.getElapsedFraction(), 0f);
+        assertEquals(210_000_000L, decoded.segmentDurationNanos);
+        assertTrue(decoded.blending);
+        assertEquals(1.5, decoded.blendStart, 0);
+        assertEquals(-2.5, decoded.blendTangent, 0);
+        assertTrue(decoded.finishDispatched);
+        assertArrayEquals(new long[]{300, 400}, decoded.keyframes);
+    }
+
+    @Test
+    public void byteArray_isCompactAndRejectsCorruptInput() {
+        ProgressEngine engine = newEngine(new ManualFrameScheduler(FRAME_NANOS), ProgressAnimInterface.RETARGET_RESTART);
+        engine.jumpTo(60);
+        // 版本、标志、3个变长整数与关键帧数量
+        assertTrue(engine.saveState().toByteArray().length <= 8);
+
+        try {
+            ProgressSnapshot.fromByteArray(new byte[]{1, 1, 2});
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            ProgressSnapshot.fromByteArray(new byte[]{9});
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void restore_continuesSegmentFromElapsedFraction() {
+        ManualFrameScheduler before = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressEngine engine = newEngine(before, ProgressAnimInterface.RETARGET_RESTART);
+        engine.animateTo(80);
+        before.doFrame();
+        before.advance(3 * FRAME_NANOS);
+        assertEquals(24, engine.getProgress());
+        byte[] bytes = engine.saveState().toByteArray();
+
+        // 新的调度器时间从其他值开始，模拟进程重建
+        ManualFrameScheduler after = new ManualFrameScheduler(FRAME_NANOS);
+        after.advance(50 * FRAME_NANOS);
+        ProgressEngine restored = newEngine(after, ProgressAnimInterface.RETARGET_RESTART);
+        ProgressEngineTest.RecordingListener listener = new ProgressEngineTest.RecordingListener();
+        restored.registerOnProgressListener("test", listener);
+        restored.restoreState(ProgressSnapshot.fromByteArray(bytes));
+
+        assertEquals(24, restored.getProgress());
+        assertEquals(80, restored.getTarget());
+        assertEquals("[24]", listener.values.toString());
+        assertTrue(restored.isRunning());
+        after.doFrame();
+        assertEquals(32, restored.getProgress());
+        assertEquals(6, after.runUntilIdle(100));
+        assertEquals(80, restored.getProgress());
+        // 连续递增，没有从0重新开始
+        for (int i = 1; i < listener.values.size(); i++) {
+            assertTrue(listener.values.get(i) > listener.values.get(i - 1));
+        }
+    }
+
+    @Test
+    public void restore_adaptiveSegmentKeepsItsDuration() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressEngine engine = newEngine(scheduler, ProgressAnimInterface.RETARGET_RESTART);
+        engine.setMax(1000);
+        engine.setDuration(1000);
+        engine.setDurationMode(ProgressAnimInterface.DURATION_ADAPTIVE);
+        engine.animateTo(100);
+        scheduler.doFrame();
+        scheduler.advance(20 * FRAME_NANOS);
+        // 第二个目标间隔210ms到达，新段时长为210ms而非配置的1000ms
+        engine.animateTo(500);
+        scheduler.advance(10 * FRAME_NANOS);
+        ProgressSnapshot snapshot = ProgressSnapshot.fromByteArray(engine.saveState().toByteArray());
+        assertEquals(210_000_000L, snapshot.segmentDurationNanos);
+
+        ManualFrameScheduler restoredScheduler = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressEngine restored = newEngine(restoredScheduler, ProgressAnimInterface.RETARGET_RESTART);
+        restored.setDuration(1000);
+        restored.setDurationMode(ProgressAnimInterface.DURATION_ADAPTIVE);
+        restored.restoreState(snapshot);
+        assertEquals(engine.getProgress(), restored.getProgress());
+        // 剩余约110ms按保存时的时长播放完
+        restoredScheduler.advance(12 * FRAME_NANOS);
+        assertEquals(500, restored.getProgress());
+        assertFalse(restored.isRunning());
+    }
+
+    @Test
+    public void restore_keepsKeyframesAndPendingTarget() {
+        ManualFrameScheduler before = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressEngine engine = newEngine(before, ProgressAnimInterface.RETARGET_QUEUE);
+        engine.animateTo(10);
+        before.doFrame();
+        engine.animateTo(20);
+        before.doFrame();
+        engine.animateTo(30);
+        before.doFrame();
+        // 最后一个目标尚未在帧线程消费
+        engine.animateTo(50);
+        ProgressSnapshot snapshot = engine.saveState();
+        assertEquals(50, snapshot.getTarget());
+
+        ManualFrameScheduler after = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressEngine restored = newEngine(after, ProgressAnimInterface.RETARGET_QUEUE);
+        restored.restoreState(ProgressSnapshot.fromByteArray(snapshot.toByteArray()));
+        assertEquals(2, restored.getPendingKeyframeCount());
+        after.doFrame();
+        assertEquals(3, restored.getPendingKeyframeCount());
+        after.runUntilIdle(1000);
+        assertEquals(50, restored.getProgress());
+    }
+
+    @Test
+    public void restore_finishedStateDoesNotNotifyFinishAgain() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressEngine engine = newEngine(scheduler, ProgressAnimInterface.RETARGET_RESTART);
+        engine.animateTo(100);
+        scheduler.runUntilIdle(100);
+        ProgressSnapshot snapshot = engine.saveState();
+
+        ProgressEngine restored = newEngine(scheduler, ProgressAnimInterface.RETARGET_RESTART);
+        ProgressEngineTest.RecordingListener listener = new ProgressEngineTest.RecordingListener();
+        restored.registerOnProgressListener("test", listener);
+        restored.restoreState(snapshot);
+        assertEquals(0, scheduler.runUntilIdle(100));
+        assertEquals("[100]", listener.values.toString());
+        assertEquals(0, listener.finishes);
+    }
+}
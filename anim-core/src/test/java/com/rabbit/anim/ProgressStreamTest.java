@@ -0,0 +1,137 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressStream测试
+ */
+public class ProgressStreamTest {
+    private static final long FRAME_NANOS = 10_000_000L;
+
+    private final ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+
+    private ProgressEngine newEngine() {
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(100);
+        engine.setDuration(100);
+        return engine;
+    }
+
+    @Test
+    public void slowSubscriber_getsLatestValueWithSinglePendingTask() {
+        ProgressEngine engine = newEngine();
+        ProgressStream stream = new ProgressStream(engine);
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        stream.subscribe(subscriber, tasks::add);
+
+        engine.animateTo(100);
+        scheduler.runUntilIdle(100);
+        assertEquals(1, tasks.size());
+        tasks.poll().run();
+        assertEquals("[100]", subscriber.values.toString());
+    }
+
+    @Test
+    public void demand_limitsDeliveries() {
+        ProgressEngine engine = newEngine();
+        ProgressStream stream = new ProgressStream(engine);
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        stream.subscribe(subscriber, Runnable::run);
+
+        engine.animateTo(100);
+        scheduler.runUntilIdle(100);
+        assertEquals(1, subscriber.values.size());
+
+        subscriber.subscription.request(1);
+        assertEquals(2, subscriber.values.size());
+        assertEquals(100L, (long) subscriber.values.get(1));
+    }
+
+    @Test
+    public void sampleInterval_mergesValuesAndKeepsLast() {
+        ProgressEngine engine = newEngine();
+        ProgressStream stream = new ProgressStream(engine);
+        RecordingSubscriber sampled = new RecordingSubscriber(Long.MAX_VALUE);
+        RecordingSubscriber every = new RecordingSubscriber(Long.MAX_VALUE);
+        stream.subscribe(sampled, Runnable::run, 30);
+        stream.subscribe(every, Runnable::run);
+
+        engine.animateTo(100);
+        scheduler.runUntilIdle(100);
+        assertEquals(11, every.values.size());
+        assertTrue("sampled " + sampled.values, sampled.values.size() <= 5);
+        assertEquals(100L, (long) sampled.values.get(sampled.values.size() - 1));
+    }
+
+    @Test
+    public void complete_deliversPendingValueThenCompletes() {
+        ProgressEngine engine = newEngine();
+        ProgressStream stream = new ProgressStream(engine);
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        stream.subscribe(subscriber, tasks::add);
+
+        engine.animateTo(50);
+        scheduler.runUntilIdle(100);
+        stream.complete();
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+        assertEquals("[50]", subscriber.values.toString());
+        assertEquals(1, subscriber.completions);
+        assertEquals(0, stream.getSubscriberCount());
+    }
+
+    @Test
+    public void invalidRequest_failsAndCancels() {
+        ProgressEngine engine = newEngine();
+        ProgressStream stream = new ProgressStream(engine);
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        stream.subscribe(subscriber, Runnable::run);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, stream.getSubscriberCount());
+    }
+
+    private static final class RecordingSubscriber implements ProgressStream.Subscriber {
+        final List<Long> values = new ArrayList<>();
+        final long initialRequest;
+        ProgressStream.Subscription subscription;
+        Throwable error;
+        int completions;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(ProgressStream.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(long progress) {
+            values.add(progress);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completions++;
+        }
+    }
+}
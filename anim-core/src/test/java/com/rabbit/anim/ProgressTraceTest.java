@@ -0,0 +1,190 @@
+package com.rabbit.anim;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ProgressTraceRecorder与ProgressTraceReplay测试：记录的调用在回放时以相同的顺序与时间重现
+ */
+public class ProgressTraceTest {
+    private static final long FRAME_NANOS = 10_000_000L;
+
+    /**
+     * 模拟一次会话：注册监听器后，每隔一段时间追加进度，最后直接动画到最大进度
+     */
+    private static ProgressTraceRecorder recordSession(ProgressEngineTest.RecordingListener listener) {
+        return recordSession(listener, new ProgressEngine(new ManualFrameScheduler(FRAME_NANOS)));
+    }
+
+    private static ProgressTraceRecorder recordSession(ProgressEngineTest.RecordingListener listener,
+                                                       ProgressEngine engine) {
+        ManualFrameScheduler scheduler = (ManualFrameScheduler) engine.getScheduler();
+        engine.setMax(200);
+        engine.setDuration(100);
+        ProgressTraceRecorder recorder = new ProgressTraceRecorder();
+        engine.setTraceRecorder(recorder);
+        engine.registerOnProgressListener("ui", listener);
+        engine.registerOnProgressListener("log", new ProgressEngineTest.RecordingListener());
+        engine.unregisterOnProgressListener("log");
+        for (int i = 0; i < 10; i++) {
+            engine.animateOver(15);
+            scheduler.advance(i % 3 == 0 ? 50_000_000L : 150_000_000L);
+        }
+        engine.animateTo(200);
+        scheduler.runUntilIdle(1000);
+        return recorder;
+    }
+
+    @Test
+    public void replay_reproducesRecordedSession() {
+        ProgressEngineTest.RecordingListener listener = new ProgressEngineTest.RecordingListener();
+        ProgressTraceRecorder recorder = recordSession(listener);
+        // 配置、2个Key定义与注册、取消注册、10次animateOver、animateTo
+        assertEquals(1 + 2 + 2 + 10 + 1 + 1, recorder.getEventCount());
+        assertFalse(recorder.isTruncated());
+        // 配置记录只在开头出现一次，其余调用记录平均不超过6字节
+        ProgressTraceRecorder configOnly = new ProgressTraceRecorder();
+        ProgressEngine probe = new ProgressEngine(new ManualFrameScheduler(FRAME_NANOS));
+        probe.setMax(200);
+        probe.setDuration(100);
+        probe.setTraceRecorder(configOnly);
+        int callBytes = recorder.size() - configOnly.size();
+        assertTrue("size=" + recorder.size(), callBytes <= (recorder.getEventCount() - 1) * 6);
+
+        ProgressEngineTest.RecordingListener replayed = new ProgressEngineTest.RecordingListener();
+        ProgressTraceReplay replay = new ProgressTraceReplay(recorder.toByteArray())
+                .setFrameIntervalNanos(FRAME_NANOS)
+                .setListener(IntProgressListenerAdapter.wrap(replayed));
+        ProgressTraceReplay.Report report = replay.run();
+
+        assertEquals(200, report.finalProgress);
+        assertEquals(15, report.events);
+        // 回放的进度序列与录制时完全一致
+        assertEquals(listener.values, replayed.values);
+        assertEquals(1, replayed.finishes);
+        assertTrue(report.restarts > 0);
+        assertTrue(report.frames > 0);
+        assertTrue(report.maxFrameNanos >= report.p99FrameNanos);
+        assertTrue(report.p99FrameNanos >= report.p50FrameNanos);
+
+        // 回放是确定性的
+        ProgressTraceReplay.Report again = new ProgressTraceReplay(recorder.toByteArray())
+                .setFrameIntervalNanos(FRAME_NANOS).run();
+        assertEquals(report.frames, again.frames);
+        assertEquals(report.restarts, again.restarts);
+        assertEquals(report.framesDispatched, again.framesDispatched);
+    }
+
+    @Test
+    public void replay_appliesRecordedConfiguration() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        ProgressAnimMetrics metrics = new ProgressAnimMetrics();
+        engine.setMetrics(metrics);
+        engine.setDurationMode(ProgressAnimInterface.DURATION_ADAPTIVE);
+        engine.setAdaptiveDurationRange(40, 400);
+        engine.setRetargetMode(ProgressAnimInterface.RETARGET_QUEUE);
+        engine.setKeyframeQueue(2, ProgressAnimInterface.QUEUE_DROP_OLDEST);
+        engine.setDispatchMode(ProgressAnimInterface.DISPATCH_ON_CHANGE);
+        engine.setQuantizeStep(4f);
+        engine.setMinVisibleDelta(6f);
+        engine.setMaxUpdateRate(30);
+        ProgressEngineTest.RecordingListener listener = new ProgressEngineTest.RecordingListener();
+        // recordSession在设置记录器前设置最大进度与时长，其余配置保持上面的值
+        ProgressTraceRecorder recorder = recordSession(listener, engine);
+
+        ProgressEngineTest.RecordingListener replayed = new ProgressEngineTest.RecordingListener();
+        ProgressTraceReplay.Report report = new ProgressTraceReplay(recorder.toByteArray())
+                .setFrameIntervalNanos(FRAME_NANOS)
+                .setListener(IntProgressListenerAdapter.wrap(replayed))
+                .run();
+
+        // 通知方式、量化、频率限制、自适应时长与关键帧队列均按记录的配置回放
+        assertEquals(listener.values, replayed.values);
+        assertEquals(metrics.snapshot().restarts, report.restarts);
+        assertEquals(metrics.snapshot().framesDispatched, report.framesDispatched);
+    }
+
+    @Test
+    public void replay_followsConfigurationChangedWhileRecording() {
+        ManualFrameScheduler scheduler = new ManualFrameScheduler(FRAME_NANOS);
+        ProgressEngine engine = new ProgressEngine(scheduler);
+        engine.setMax(200);
+        engine.setDuration(100);
+        ProgressTraceRecorder recorder = new ProgressTraceRecorder();
+        engine.setTraceRecorder(recorder);
+        ProgressEngineTest.RecordingListener listener = new ProgressEngineTest.RecordingListener();
+        engine.registerOnProgressListener("ui", listener);
+        engine.animateTo(100);
+        scheduler.runUntilIdle(1000);
+        // 设置记录器之后修改配置
+        engine.setMax(400);
+        engine.setDuration(300);
+        engine.animateTo(400);
+        scheduler.runUntilIdle(1000);
+
+        ProgressEngineTest.RecordingListener replayed = new ProgressEngineTest.RecordingListener();
+        ProgressTraceReplay.Report report = new ProgressTraceReplay(recorder.toByteArray())
+                .setFrameIntervalNanos(FRAME_NANOS)
+                .setListener(IntProgressListenerAdapter.wrap(replayed))
+                .run();
+
+        assertEquals(400, report.finalProgress);
+        assertEquals(listener.values, replayed.values);
+    }
+
+    @Test
+    public void recorder_bindsOneEngineAtATime() {
+        ProgressTraceRecorder recorder = new ProgressTraceRecorder();
+        ProgressEngine first = new ProgressEngine(new ManualFrameScheduler(FRAME_NANOS));
+        ProgressEngine second = new ProgressEngine(new ManualFrameScheduler(FRAME_NANOS));
+        first.setTraceRecorder(recorder);
+        // 同一个引擎重复设置不受影响
+        first.setTraceRecorder(recorder);
+        try {
+            second.setTraceRecorder(recorder);
+            fail("recorder shared by two engines must be rejected");
+        } catch (IllegalStateException expected) {
+        }
+        int events = recorder.getEventCount();
+        second.animateTo(50);
+        assertEquals(events, recorder.getEventCount());
+
+        // 前一个引擎释放后可绑定新的引擎
+        first.release();
+        second.setTraceRecorder(recorder);
+        second.animateTo(60);
+        assertEquals(events + 2, recorder.getEventCount());
+    }
+
+    @Test
+    public void recorder_stopsAtCapacity() {
+        ProgressTraceRecorder recorder = new ProgressTraceRecorder(64);
+        for (int i = 0; i < 100; i++) {
+            recorder.recordAnimateOver(i * 1000L, 1);
+        }
+        assertTrue(recorder.isTruncated());
+        assertTrue(recorder.size() <= 64);
+        // 截断的轨迹仍可完整解析
+        assertEquals(recorder.getEventCount(), new ProgressTraceReplay(recorder.toByteArray()).getEventCount());
+
+        recorder.clear();
+        assertFalse(recorder.isTruncated());
+        assertEquals(0, recorder.getEventCount());
+    }
+
+    @Test
+    public void replay_rejectsCorruptTrace() {
+        try {
+            new ProgressTraceReplay(new byte[]{ProgressTraceRecorder.VERSION, ProgressTraceRecorder.OP_REGISTER, 0, 0});
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new ProgressTraceReplay(new byte[]{ProgressTraceRecorder.VERSION, 42, 0});
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.rabbit.anim;
+
+import android.app.Instrumentation;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * 共享帧驱动单帧耗时基准：1、100、1000个活动实例
+ */
+@RunWith(AndroidJUnit4.class)
+public class FrameDriverBenchmark {
+    private static final String TAG = FrameDriverBenchmark.class.getSimpleName();
+
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURE_FRAMES = 1000;
+    private static final long FRAME_INTERVAL_NANOS = 16_666_667L;
+
+    @Test
+    public void perFrameCost() {
+        for (int count : new int[]{1, 100, 1000}) {
+            long nanosPerFrame = measure(count);
+            Log.i(TAG, "active=" + count + " perFrame=" + nanosPerFrame + "ns perInstance=" + nanosPerFrame / count + "ns");
+        }
+    }
+
+    private long measure(int count) {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        FrameDriver driver = new FrameDriver();
+        ProgressAnim[] anims = new ProgressAnim[count];
+        for (int i = 0; i < count; i++) {
+            ProgressAnim anim = new ProgressAnim.Builder()
+                    .setMax(Integer.MAX_VALUE)
+                    // 足够长的时长，保证测量期间实例始终处于活动状态
+                    .setDuration(3_600_000L)
+                    .setFrameScheduler(driver)
+                    .registerOnProgressListener("bench", new ProgressAnimInterface.OnProgressChangeListener() {
+                        @Override
+                        public void onChange(int progress) {
+                        }
+
+                        @Override
+                        public void onFinish() {
+                        }
+                    })
+                    .create();
+            anim.animateTo(Integer.MAX_VALUE);
+            anims[i] = anim;
+        }
+        instrumentation.waitForIdleSync();
+
+        long[] result = new long[1];
+        instrumentation.runOnMainSync(() -> {
+            assertEquals(count, driver.getActiveCount());
+            long frameTime = System.nanoTime();
+            for (int i = 0; i < WARMUP_FRAMES; i++) {
+                driver.doFrame(frameTime += FRAME_INTERVAL_NANOS);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURE_FRAMES; i++) {
+                driver.doFrame(frameTime += FRAME_INTERVAL_NANOS);
+            }
+            result[0] = (System.nanoTime() - start) / MEASURE_FRAMES;
+        });
+
+        for (ProgressAnim anim : anims) {
+            anim.release();
+        }
+        instrumentation.waitForIdleSync();
+        return result[0];
+    }
+}
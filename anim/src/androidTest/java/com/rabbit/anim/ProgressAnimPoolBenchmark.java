@@ -0,0 +1,107 @@
+package com.rabbit.anim;
+
+import android.app.Instrumentation;
+import android.os.Debug;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * 列表滑动时每次fling的对象分配：逐个创建、释放 vs 对象池复用
+ * 一次fling模拟可见窗口滑过{@link #ITEMS_PER_FLING}个列表项，每项解绑一个旧实例、绑定一个新实例
+ */
+@RunWith(AndroidJUnit4.class)
+public class ProgressAnimPoolBenchmark {
+    private static final String TAG = ProgressAnimPoolBenchmark.class.getSimpleName();
+
+    private static final int VISIBLE_ITEMS = 12;
+    private static final int ITEMS_PER_FLING = 60;
+    private static final int ITEM_COUNT = 1000;
+    private static final int WARMUP_FLINGS = 20;
+    private static final int MEASURE_FLINGS = 100;
+
+    private final ProgressAnim.Builder builder = new ProgressAnim.Builder()
+            .setMax(100)
+            .setDuration(300)
+            .setUseSharedFrameDriver(true)
+            .registerOnProgressListener("bind", new ProgressAnimInterface.OnProgressChangeListener() {
+                @Override
+                public void onChange(int progress) {
+                }
+
+                @Override
+                public void onFinish() {
+                }
+            });
+
+    @Test
+    public void allocationsPerFling() {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        instrumentation.runOnMainSync(() -> {
+            long[] create = measure(null);
+            long[] pooled = measure(new ProgressAnimPool());
+            Log.i(TAG, "create/release: " + create[0] + " objects, " + create[1] + " bytes per fling");
+            Log.i(TAG, "pooled:         " + pooled[0] + " objects, " + pooled[1] + " bytes per fling");
+        });
+    }
+
+    /**
+     * 测量每次fling的分配
+     *
+     * @param pool 对象池。为null时逐个创建、释放
+     * @return 每次fling分配的对象数与字节数
+     */
+    @SuppressWarnings("deprecation")
+    private long[] measure(ProgressAnimPool pool) {
+        ProgressAnim[] window = new ProgressAnim[VISIBLE_ITEMS];
+        int[] position = {0};
+        for (int i = 0; i < VISIBLE_ITEMS; i++) {
+            window[i] = bind(pool, position[0]++);
+        }
+        for (int i = 0; i < WARMUP_FLINGS; i++) {
+            fling(pool, window, position);
+        }
+        Debug.resetThreadAllocCount();
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+        for (int i = 0; i < MEASURE_FLINGS; i++) {
+            fling(pool, window, position);
+        }
+        Debug.stopAllocCounting();
+        long[] result = {Debug.getThreadAllocCount() / MEASURE_FLINGS, Debug.getThreadAllocSize() / MEASURE_FLINGS};
+        for (ProgressAnim anim : window) {
+            unbind(pool, anim);
+        }
+        if (pool != null) {
+            pool.clear();
+        }
+        return result;
+    }
+
+    private void fling(ProgressAnimPool pool, ProgressAnim[] window, int[] position) {
+        for (int i = 0; i < ITEMS_PER_FLING; i++) {
+            int slot = position[0] % VISIBLE_ITEMS;
+            unbind(pool, window[slot]);
+            window[slot] = bind(pool, position[0]++);
+        }
+    }
+
+    private ProgressAnim bind(ProgressAnimPool pool, int position) {
+        long stableId = position % ITEM_COUNT;
+        ProgressAnim anim = pool != null ? pool.obtain(builder, stableId) : builder.create();
+        anim.animateTo((int) (stableId % 100));
+        return anim;
+    }
+
+    private void unbind(ProgressAnimPool pool, ProgressAnim anim) {
+        if (pool != null) {
+            pool.recycle(anim);
+        } else {
+            anim.release();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.rabbit.anim;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+/**
+ * 主线程帧驱动
+ * <p>
+ * 以单个Choreographer帧回调驱动其下所有动画引擎，动画结束的引擎在帧回调中被移出活动集合，
+ * 没有活动引擎时不再请求下一帧。{@link #getShared()}为所有实例共享的帧驱动；
+ * 未使用共享帧驱动的ProgressAnim各自持有一个帧驱动。
+ */
+public final class FrameDriver implements FrameScheduler, Choreographer.FrameCallback {
+    /**
+     * 全局共享实例
+     */
+    private static final FrameDriver SHARED = new FrameDriver();
+
+    /**
+     * 主线程Handler
+     */
+    private static final Handler MAIN_HANDLER = Build.VERSION.SDK_INT >= Build.VERSION_CODES.P
+            ? Handler.createAsync(Looper.getMainLooper())
+            : new Handler(Looper.getMainLooper());
+
+    /**
+     * 活动帧回调
+     */
+    private final FrameCallbackList callbacks = new FrameCallbackList();
+
+    /**
+     * 是否已请求下一帧
+     */
+    private boolean frameScheduled;
+
+    FrameDriver() {
+    }
+
+    /**
+     * 获取全局共享帧驱动
+     *
+     * @return 共享帧驱动实例
+     */
+    @NonNull
+    public static FrameDriver getShared() {
+        return SHARED;
+    }
+
+    @Override
+    public long nanoTime() {
+        // Choreographer帧时间以System.nanoTime()为基准
+        return System.nanoTime();
+    }
+
+    @Override
+    public void post(@NonNull Runnable runnable) {
+        MAIN_HANDLER.post(runnable);
+    }
+
+    @MainThread
+    @Override
+    public void addFrameCallback(@NonNull FrameScheduler.FrameCallback callback) {
+        callbacks.add(callback);
+        scheduleFrame();
+    }
+
+    @MainThread
+    @Override
+    public void removeFrameCallback(@NonNull FrameScheduler.FrameCallback callback) {
+        callbacks.remove(callback);
+    }
+
+    /**
+     * 获取活动帧回调数量（包含尚未压缩的空位）
+     *
+     * @return 活动帧回调数量
+     */
+    @MainThread
+    public int getActiveCount() {
+        return callbacks.size();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        if (callbacks.dispatch(frameTimeNanos) > 0) {
+            scheduleFrame();
+        }
+    }
+
+    /**
+     * 请求下一帧回调
+     */
+    private void scheduleFrame() {
+        if (!frameScheduled) {
+            frameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
@@ -1,166 +1,217 @@
 package com.rabbit.anim;
 
 import android.animation.TimeInterpolator;
-import android.animation.ValueAnimator;
-import android.os.Build;
 import android.os.Handler;
-import android.os.Looper;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.view.View;
 import android.view.animation.LinearInterpolator;
 
 import androidx.annotation.IntRange;
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.lifecycle.LifecycleOwner;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Created by RabbitFeng on 2022/2/8
  */
 public class ProgressAnim implements ProgressAnimInterface {
     /**
-     * 进度监听器
+     * 进度动画引擎
      */
-    protected final Map<String, OnProgressChangeListener> onProgressChangeListenerMap = new ConcurrentHashMap<>();
-
-    protected ValueAnimator progressAnimator = ValueAnimator.ofFloat(0f, 1f);
+    @NonNull
+    protected final ProgressEngine engine;
 
     /**
-     * 动画持续时间
+     * 所属对象池的配置Key，未经对象池创建时为null
      */
-    protected long duration;
+    @Nullable
+    ProgressAnimPool.Key poolKey;
 
     /**
-     * 插值器
+     * 列表项稳定ID，用于缓存进度状态
      */
-    protected TimeInterpolator interpolator = new LinearInterpolator();
+    long stableId = ProgressAnimPool.NO_ID;
 
     /**
-     * 最大进度
+     * 是否在对象池中空闲
      */
-    private int max;
+    boolean idle;
 
     /**
-     * 当前进度值
+     * 生命周期与目标View绑定，未绑定时为null
      */
-    protected int progress;
+    @Nullable
+    private ProgressAnimBinding binding;
 
     /**
-     * 动画开始进度值
+     * 进度流，首次获取时创建
      */
-    protected int progressStart;
+    @Nullable
+    private ProgressStream stream;
 
     /**
-     * 动画结束进度值
+     * 私有化构造器
+     *
+     * @param scheduler 帧调度器
      */
-    protected int progressEnd;
+    private ProgressAnim(@NonNull FrameScheduler scheduler) {
+        engine = new ProgressEngine(scheduler);
+    }
 
     /**
-     * 主线程Handler
+     * 获取进度动画引擎
+     *
+     * @return 进度动画引擎
      */
-    protected final Handler mainHandler;
+    @NonNull
+    public ProgressEngine getEngine() {
+        return engine;
+    }
 
-    /**
-     * 私有化构造器
-     */
-    private ProgressAnim() {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
-            mainHandler = Handler.createAsync(Looper.getMainLooper());
-        } else {
-            mainHandler = new Handler(Looper.getMainLooper());
-        }
+    @Override
+    public void animateTo(int animateTo) {
+        engine.animateTo(animateTo);
+    }
+
+    @Override
+    public void animateOver(int animateOver) {
+        engine.animateOver(animateOver);
     }
 
     /**
-     * 装载动画
+     * 动画到指定的64位进度值
+     *
+     * @param animateTo 目标进度值
      */
-    protected void setupAnim() {
-        progressAnimator.setDuration(duration);
-        progressAnimator.setInterpolator(interpolator);
-        progressAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                float runningPer = (float) animation.getAnimatedValue();
-                progress = (int) (progressStart + runningPer * (progressEnd - progressStart));
-                // 通知进度变化
-                notifyOnProgressChange();
-            }
-        });
+    public void animateTo(long animateTo) {
+        engine.animateTo(animateTo);
     }
 
     /**
-     * 通知进度变化
+     * 在最新目标进度值基础上增加指定的64位进度
+     *
+     * @param animateOver 增加的进度值
      */
-    protected void notifyOnProgressChange() {
-        boolean isFinish = max == progress;
-        for (String key : onProgressChangeListenerMap.keySet()) {
-            // 遍历监听器Map通知进度更新
-            ProgressAnim.OnProgressChangeListener onProgressChangedListener = onProgressChangeListenerMap.get(key);
-            if (onProgressChangedListener != null) {
-                onProgressChangedListener.onChange(progress);
-                // 若当前进度值=总进度值，则通知动画结束
-                if (isFinish) {
-                    onProgressChangedListener.onFinish();
-                }
-            }
-        }
+    public void animateOver(long animateOver) {
+        engine.animateOver(animateOver);
     }
 
     @Override
-    public void animateTo(int animateTo) {
-        if (progressAnimator.isRunning()) {
-            progressAnimator.pause();
-        }
-
-        progressStart = progress;
-        progressEnd = Math.min(animateTo, max);
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener listener) {
+        engine.registerOnProgressListener(key, listener);
+    }
 
-        runOnUIThread(() -> {
-            progressAnimator.start();
-        });
+    /**
+     * 注册64位进度监听器，可获得未截断的进度值与精确的完成比例
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnLongProgressChangeListener listener) {
+        engine.registerOnProgressListener(key, listener);
     }
 
-    @Override
-    public synchronized void animateOver(int animateOver) {
-        animateTo(progressEnd + animateOver);
+    /**
+     * 按优先级注册进度监听器
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     * @param priority {@link #PRIORITY_HIGH}每帧总会通知；
+     *                 {@link #PRIORITY_LOW}设置{@link FrameBudget}后，预算用完时推迟到之后的帧，合并为最新进度值
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener listener,
+                                           @ListenerPriority int priority) {
+        engine.registerOnProgressListener(key, listener, priority);
     }
 
-    @Override
-    public void registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener listener) {
-        onProgressChangeListenerMap.put(key, listener);
+    /**
+     * 按优先级注册64位进度监听器
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     * @param priority {@link #PRIORITY_HIGH}每帧总会通知；
+     *                 {@link #PRIORITY_LOW}设置{@link FrameBudget}后，预算用完时推迟到之后的帧，合并为最新进度值
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnLongProgressChangeListener listener,
+                                           @ListenerPriority int priority) {
+        engine.registerOnProgressListener(key, listener, priority);
     }
 
-    @Override
-    public void unregisterOnProgressListener(@Nullable String key) {
-        if (key == null) {
-            unregisterAllOnProgressListener();
-        } else {
-            onProgressChangeListenerMap.remove(key);
-        }
+    /**
+     * 注册64位进度监听器，在指定线程投递
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     * @param executor 投递线程，如{@link #getBackgroundExecutor()}。为null时在主线程同步通知
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnLongProgressChangeListener listener,
+                                           @Nullable Executor executor) {
+        engine.registerOnProgressListener(key, listener, executor);
     }
 
-    @Override
-    public void unregisterAllOnProgressListener() {
-        onProgressChangeListenerMap.clear();
+    /**
+     * 注册进度监听器，在指定线程投递
+     * 非主线程投递时合并为最新进度值，不会积压，结束通知总在其对应的进度值之后投递
+     *
+     * @param key      键。不能为空
+     * @param listener 监听器实例。不能为空
+     * @param executor 投递线程，如{@link #getBackgroundExecutor()}。为null时在主线程同步通知
+     */
+    public void registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener listener,
+                                           @Nullable Executor executor) {
+        engine.registerOnProgressListener(key, listener, executor);
     }
 
     /**
-     * Runnable主线程执行
+     * 获取进度监听器专用的后台线程，适合日志、统计等非UI监听器
      *
-     * @param runnable 延时任务
+     * @return 后台线程Executor
      */
-    protected void runOnUIThread(@NonNull Runnable runnable) {
-        runOnUIThreadDelay(runnable, 0);
+    @NonNull
+    public static Executor getBackgroundExecutor() {
+        return BackgroundExecutorHolder.EXECUTOR;
     }
 
     /**
-     * Runnable主线程延时执行
+     * 获取进度流，可在任意线程订阅。释放或回收到对象池时结束
+     * 进度流以{@link ProgressStream#LISTENER_KEY}注册为监听器，取消注册所有监听器会使其停止接收进度
      *
-     * @param runnable    延时任务
-     * @param delayMillis 延迟时间
+     * @return 进度流
      */
-    protected void runOnUIThreadDelay(@NonNull Runnable runnable, long delayMillis) {
-        mainHandler.postDelayed(runnable, delayMillis);
+    @NonNull
+    public synchronized ProgressStream asStream() {
+        if (stream == null) {
+            stream = new ProgressStream(engine);
+        }
+        return stream;
+    }
+
+    /**
+     * 结束进度流
+     */
+    synchronized void completeStream() {
+        if (stream != null) {
+            stream.complete();
+            stream = null;
+        }
+    }
+
+    @Override
+    public void unregisterOnProgressListener(@Nullable String key) {
+        engine.unregisterOnProgressListener(key);
+    }
+
+    @Override
+    public void unregisterAllOnProgressListener() {
+        engine.unregisterAllOnProgressListener();
     }
 
     /**
@@ -169,7 +220,7 @@ public class ProgressAnim implements ProgressAnimInterface {
      * @param timeMillis 动画时长(毫秒)
      */
     protected void setDuration(long timeMillis) {
-        this.duration = timeMillis;
+        engine.setDuration(timeMillis);
     }
 
     /**
@@ -177,8 +228,8 @@ public class ProgressAnim implements ProgressAnimInterface {
      *
      * @param interpolator 动画插值器
      */
-    protected void setInterpolator(TimeInterpolator interpolator) {
-        this.interpolator = interpolator;
+    protected void setInterpolator(@NonNull TimeInterpolator interpolator) {
+        engine.setInterpolator(interpolator::getInterpolation);
     }
 
     /**
@@ -186,40 +237,238 @@ public class ProgressAnim implements ProgressAnimInterface {
      *
      * @param max 最大进度
      */
-    protected void setMax(int max) {
-        this.max = max;
+    protected void setMax(long max) {
+        engine.setMax(max);
+    }
+
+    /**
+     * 绑定生命周期：未到STARTED时暂停帧回调，恢复时直接跳到最新目标进度，销毁时自动释放
+     *
+     * @param owner 生命周期持有者，如Activity、Fragment
+     * @return 当前实例以链式调用
+     */
+    @MainThread
+    @NonNull
+    public ProgressAnim bindLifecycle(@NonNull LifecycleOwner owner) {
+        binding().bindLifecycle(owner);
+        return this;
+    }
+
+    /**
+     * 绑定目标View：View不在窗口中时暂停帧回调，重新附加到窗口时直接跳到最新目标进度
+     *
+     * @param view 显示进度的View
+     * @return 当前实例以链式调用
+     */
+    @MainThread
+    @NonNull
+    public ProgressAnim bindView(@NonNull View view) {
+        binding().bindView(view);
+        return this;
+    }
+
+    /**
+     * 解除生命周期与目标View绑定，恢复帧回调
+     */
+    @MainThread
+    public void unbind() {
+        clearBinding();
+        engine.setPaused(false);
+    }
+
+    /**
+     * 移除生命周期与目标View绑定，不改变暂停状态
+     */
+    void clearBinding() {
+        if (binding != null) {
+            binding.unbind();
+            binding = null;
+        }
+    }
+
+    /**
+     * 获取绑定，不存在时创建
+     *
+     * @return 绑定
+     */
+    @NonNull
+    private ProgressAnimBinding binding() {
+        if (binding == null) {
+            binding = new ProgressAnimBinding(this);
+        }
+        return binding;
+    }
+
+    /**
+     * 保存状态，在onSaveInstanceState中放入Bundle
+     *
+     * @return 进度动画状态
+     */
+    @MainThread
+    @NonNull
+    public ProgressAnimState saveState() {
+        return new ProgressAnimState(engine.saveState().toByteArray());
+    }
+
+    /**
+     * 恢复状态，执行中的动画从保存时的位置继续播放，不从0重新开始
+     * 需在按保存时的配置创建的实例上调用，格式不正确的状态被忽略
+     *
+     * @param state 由{@link #saveState()}保存的状态
+     */
+    @MainThread
+    public void restoreState(@NonNull ProgressAnimState state) {
+        ProgressSnapshot snapshot;
+        try {
+            snapshot = state.getSnapshot();
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        engine.restoreState(snapshot);
     }
 
     @Override
     public void release() {
-        progressAnimator.removeAllUpdateListeners();
-        progressAnimator.removeAllListeners();
-        progressAnimator.cancel();
+        clearBinding();
+        completeStream();
+        engine.release();
+    }
 
-        unregisterAllOnProgressListener();
+    /**
+     * 后台线程延迟初始化
+     */
+    private static class BackgroundExecutorHolder {
+        private static final Executor EXECUTOR;
+
+        static {
+            HandlerThread thread = new HandlerThread("ProgressAnim-listener", Process.THREAD_PRIORITY_BACKGROUND);
+            thread.start();
+            EXECUTOR = new Handler(thread.getLooper())::post;
+        }
     }
 
     /**
      * 封装构造参数
      */
     protected static class BuildParams {
-        @IntRange(from = 0, to = 100)
-        int max = 100;
+        /**
+         * 最大进度
+         */
+        @IntRange(from = 0)
+        long max = 100;
 
         /**
          * 动画持续时间（每段）
          */
         long duration = 300;
 
+        /**
+         * 动画时长方式
+         */
+        @DurationMode
+        private int durationMode = DURATION_FIXED;
+
+        /**
+         * 自适应时长下限(毫秒)
+         */
+        private long minAdaptiveDuration = 100;
+
+        /**
+         * 自适应时长上限(毫秒)
+         */
+        private long maxAdaptiveDuration = 3000;
+
         /**
          * 动画插值器类型
          */
         private TimeInterpolator interpolator = new LinearInterpolator();
 
+        /**
+         * 每秒最多通知次数。为0时不限制
+         */
+        private int maxUpdateRate;
+
+        /**
+         * 最小可见变化量（像素）
+         */
+        private float minVisiblePixels;
+
+        /**
+         * 最小可见变化量对应的像素宽度。为0时不限制
+         */
+        private int minVisiblePixelSpan;
+
+        /**
+         * 重定向方式
+         */
+        @RetargetMode
+        private int retargetMode = RETARGET_RESTART;
+
+        /**
+         * 关键帧队列深度
+         */
+        private int keyframeQueueDepth = 8;
+
+        /**
+         * 关键帧队列合并策略
+         */
+        @QueuePolicy
+        private int keyframeQueuePolicy = QUEUE_MERGE_LAST;
+
+        /**
+         * 插值器查找表分辨率。为0时不使用查找表
+         */
+        private int interpolatorTableResolution;
+
+        /**
+         * 帧调度器。为null时每个实例使用独立的帧驱动
+         */
+        @Nullable
+        private FrameScheduler frameScheduler;
+
+        /**
+         * 运行指标。为null时不统计
+         */
+        @Nullable
+        private ProgressAnimMetrics metrics;
+
+        /**
+         * 调用轨迹记录器。为null时不记录
+         */
+        @Nullable
+        private ProgressTraceRecorder traceRecorder;
+
+        /**
+         * 每帧监听器通知的时间预算。为null时不限制
+         */
+        @Nullable
+        private FrameBudget frameBudget;
+
+        /**
+         * 进度通知方式
+         */
+        @DispatchMode
+        private int dispatchMode = DISPATCH_EVERY_FRAME;
+
+        /**
+         * 量化步长（进度单位）
+         */
+        private float quantizeStep = 1f;
+
+        /**
+         * 量化对应的像素宽度。大于0时按1像素量化
+         */
+        private int quantizePixelSpan;
+
         /**
          * 进度监听器Map
          */
-        private final Map<String, OnProgressChangeListener> onProgressChangeListenerMap = new ConcurrentHashMap<>();
+        private final Map<String, OnLongProgressChangeListener> onProgressChangeListenerMap = new LinkedHashMap<>();
+
+        /**
+         * 低优先级进度监听器的Key
+         */
+        private final Set<String> lowPriorityListenerKeys = new HashSet<>();
     }
 
     /**
@@ -244,6 +493,16 @@ public class ProgressAnim implements ProgressAnimInterface {
          * @return Builder实例以链式调用
          */
         public Builder setMax(@IntRange(from = 0, to = Integer.MAX_VALUE) int max) {
+            return setMax((long) max);
+        }
+
+        /**
+         * 设置64位最大进度值，如文件字节数，进度精确到字节
+         *
+         * @param max 最大进度值
+         * @return Builder实例以链式调用
+         */
+        public Builder setMax(@IntRange(from = 0) long max) {
             P.max = max;
             return this;
         }
@@ -261,6 +520,24 @@ public class ProgressAnim implements ProgressAnimInterface {
             return this;
         }
 
+        /**
+         * 开启自适应动画时长
+         * 每段时长跟随animateTo、animateOver的平均到达间隔，进度来源较快时缩短、较慢时延长，
+         * 下一个目标到达时当前段恰好结束，动画连续且很少被打断。样本不足时使用{@link #setDuration(long)}设置的时长
+         *
+         * @param minDuration 时长下限(毫秒)。数值需要大于等于0
+         * @param maxDuration 时长上限(毫秒)。不能小于下限
+         * @return Builder实例以链式调用
+         */
+        public Builder setAdaptiveDuration(long minDuration, long maxDuration) {
+            if (minDuration >= 0 && maxDuration >= minDuration) {
+                P.durationMode = DURATION_ADAPTIVE;
+                P.minAdaptiveDuration = minDuration;
+                P.maxAdaptiveDuration = maxDuration;
+            }
+            return this;
+        }
+
         /**
          * 设置动画插值器类型
          *
@@ -272,6 +549,180 @@ public class ProgressAnim implements ProgressAnimInterface {
             return this;
         }
 
+        /**
+         * 设置最大通知频率
+         * 高刷新率设备上限制每个实例的通知次数，超出频率的帧不通知，每段动画的最终值总会通知
+         *
+         * @param updatesPerSecond 每秒最多通知次数。为0时不限制
+         * @return Builder实例以链式调用
+         */
+        public Builder setMaxUpdateRate(@IntRange(from = 0) int updatesPerSecond) {
+            if (updatesPerSecond >= 0) {
+                P.maxUpdateRate = updatesPerSecond;
+            }
+            return this;
+        }
+
+        /**
+         * 设置最小可见变化量
+         * 与上次通知的进度值相比，在进度条上的变化不足指定像素时不通知，每段动画的最终值总会通知
+         *
+         * @param minPixels 最小可见变化量(像素)，如1
+         * @param pixelSpan 进度条的像素宽度。为0时不限制
+         * @return Builder实例以链式调用
+         */
+        public Builder setMinVisibleDelta(float minPixels, @IntRange(from = 0) int pixelSpan) {
+            if (minPixels >= 0 && pixelSpan >= 0) {
+                P.minVisiblePixels = minPixels;
+                P.minVisiblePixelSpan = pixelSpan;
+            }
+            return this;
+        }
+
+        /**
+         * 设置重定向方式
+         *
+         * @param retargetMode {@link #RETARGET_RESTART}新目标到达时重新开始一段动画；
+         *                     {@link #RETARGET_QUEUE}新目标作为关键帧排队，一次连续的动画依次播放；
+         *                     {@link #RETARGET_VELOCITY}保持当前速度平滑过渡到新目标，不重新开始
+         * @return Builder实例以链式调用
+         */
+        public Builder setRetargetMode(@RetargetMode int retargetMode) {
+            P.retargetMode = retargetMode;
+            return this;
+        }
+
+        /**
+         * 设置关键帧队列，仅{@link #RETARGET_QUEUE}时生效
+         *
+         * @param depth  队列深度。数值需要大于0，默认为8
+         * @param policy 队列已满时的合并策略：{@link #QUEUE_MERGE_LAST}合并到队尾关键帧；
+         *               {@link #QUEUE_DROP_OLDEST}丢弃最早的关键帧
+         * @return Builder实例以链式调用
+         */
+        public Builder setKeyframeQueue(@IntRange(from = 1) int depth, @QueuePolicy int policy) {
+            if (depth > 0) {
+                P.keyframeQueueDepth = depth;
+            }
+            P.keyframeQueuePolicy = policy;
+            return this;
+        }
+
+        /**
+         * 设置插值器查找表分辨率
+         * 开启后插值器被预采样为查找表，相邻采样点间线性插值，适合路径、弹跳等计算开销较大的插值器。
+         * 相同插值器实例、相同分辨率的查找表在实例间共享
+         *
+         * @param resolution 分辨率，如{@link LookupTableInterpolator#DEFAULT_RESOLUTION}。为0时不使用查找表
+         * @return Builder实例以链式调用
+         */
+        public Builder setInterpolatorTableResolution(@IntRange(from = 0) int resolution) {
+            if (resolution >= 0) {
+                P.interpolatorTableResolution = resolution;
+            }
+            return this;
+        }
+
+        /**
+         * 设置是否使用共享帧驱动
+         * 大量实例同时执行动画时，共享帧驱动以单个Choreographer帧回调驱动所有实例
+         *
+         * @param useSharedFrameDriver 是否使用共享帧驱动。默认为false，每个实例使用独立的帧驱动
+         * @return Builder实例以链式调用
+         */
+        public Builder setUseSharedFrameDriver(boolean useSharedFrameDriver) {
+            P.frameScheduler = useSharedFrameDriver ? FrameDriver.getShared() : null;
+            return this;
+        }
+
+        /**
+         * 设置帧调度器
+         *
+         * @param frameScheduler 帧调度器，如{@link FrameDriver#getShared()}或JVM上的{@link ManualFrameScheduler}
+         * @return Builder实例以链式调用
+         */
+        public Builder setFrameScheduler(@NonNull FrameScheduler frameScheduler) {
+            P.frameScheduler = frameScheduler;
+            return this;
+        }
+
+        /**
+         * 设置运行指标，开启帧数、调用次数、监听器耗时等统计
+         * 同一个指标实例可被多个ProgressAnim共享，通过{@link ProgressAnimMetrics#snapshot()}导出
+         *
+         * @param metrics 运行指标。默认为null，不统计
+         * @return Builder实例以链式调用
+         */
+        public Builder setMetrics(@Nullable ProgressAnimMetrics metrics) {
+            P.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * 设置调用轨迹记录器，记录配置与animateTo、animateOver、监听器注册等调用的顺序与时间，
+         * 导出后可用{@link ProgressTraceReplay}在JVM上回放，复现线上卡顿或作为性能回归基准。
+         * 一个记录器同时只能用于一个实例，前一个实例释放前用同一个Builder创建新实例会抛出IllegalStateException
+         *
+         * @param traceRecorder 调用轨迹记录器。默认为null，不记录
+         * @return Builder实例以链式调用
+         */
+        public Builder setTraceRecorder(@Nullable ProgressTraceRecorder traceRecorder) {
+            P.traceRecorder = traceRecorder;
+            return this;
+        }
+
+        /**
+         * 设置每帧监听器通知的时间预算。高优先级监听器总会通知；预算用完后，低优先级监听器推迟到之后的帧，
+         * 合并为届时的最新进度值。同一个预算实例可被同一帧调度器上的多个ProgressAnim共享，推迟次数通过
+         * {@link #setMetrics(ProgressAnimMetrics)}统计
+         *
+         * @param frameBudget 帧预算。默认为null，不限制
+         * @return Builder实例以链式调用
+         */
+        public Builder setFrameBudget(@Nullable FrameBudget frameBudget) {
+            P.frameBudget = frameBudget;
+            return this;
+        }
+
+        /**
+         * 设置进度通知方式
+         *
+         * @param dispatchMode {@link #DISPATCH_EVERY_FRAME}每帧通知；
+         *                     {@link #DISPATCH_ON_CHANGE}仅在量化后的进度值变化时通知，结束通知不受影响
+         * @return Builder实例以链式调用
+         */
+        public Builder setDispatchMode(@DispatchMode int dispatchMode) {
+            P.dispatchMode = dispatchMode;
+            return this;
+        }
+
+        /**
+         * 设置量化步长，仅{@link #DISPATCH_ON_CHANGE}时生效
+         *
+         * @param quantizeStep 量化步长（进度单位）。数值需要大于0，默认为1
+         * @return Builder实例以链式调用
+         */
+        public Builder setQuantizeStep(float quantizeStep) {
+            if (quantizeStep > 0) {
+                P.quantizeStep = quantizeStep;
+                P.quantizePixelSpan = 0;
+            }
+            return this;
+        }
+
+        /**
+         * 按像素设置量化步长，即进度变化不足1像素时不通知，仅{@link #DISPATCH_ON_CHANGE}时生效
+         *
+         * @param pixelSpan 进度条的像素宽度。数值需要大于0
+         * @return Builder实例以链式调用
+         */
+        public Builder setQuantizeStepByPixels(int pixelSpan) {
+            if (pixelSpan > 0) {
+                P.quantizePixelSpan = pixelSpan;
+            }
+            return this;
+        }
+
         /**
          * 注册进度监听器
          *
@@ -280,7 +731,89 @@ public class ProgressAnim implements ProgressAnimInterface {
          * @return Builder实例以链式调用
          */
         public Builder registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener onProgressChangeListener) {
+            P.onProgressChangeListenerMap.put(key, IntProgressListenerAdapter.wrap(onProgressChangeListener));
+            P.lowPriorityListenerKeys.remove(key);
+            return this;
+        }
+
+        /**
+         * 注册进度监听器，在指定线程投递
+         *
+         * @param key                      监听器Key
+         * @param onProgressChangeListener 进度监听器
+         * @param executor                 投递线程，如{@link #getBackgroundExecutor()}。为null时在主线程同步通知
+         * @return Builder实例以链式调用
+         */
+        public Builder registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener onProgressChangeListener,
+                                                  @Nullable Executor executor) {
+            P.onProgressChangeListenerMap.put(key, executor == null
+                    ? IntProgressListenerAdapter.wrap(onProgressChangeListener)
+                    : new ConflatingProgressListener(onProgressChangeListener, executor));
+            P.lowPriorityListenerKeys.remove(key);
+            return this;
+        }
+
+        /**
+         * 注册64位进度监听器
+         *
+         * @param key                      监听器Key
+         * @param onProgressChangeListener 64位进度监听器
+         * @return Builder实例以链式调用
+         */
+        public Builder registerOnProgressListener(@NonNull String key, @NonNull OnLongProgressChangeListener onProgressChangeListener) {
+            P.onProgressChangeListenerMap.put(key, onProgressChangeListener);
+            P.lowPriorityListenerKeys.remove(key);
+            return this;
+        }
+
+        /**
+         * 注册64位进度监听器，在指定线程投递
+         *
+         * @param key                      监听器Key
+         * @param onProgressChangeListener 64位进度监听器
+         * @param executor                 投递线程，如{@link #getBackgroundExecutor()}。为null时在主线程同步通知
+         * @return Builder实例以链式调用
+         */
+        public Builder registerOnProgressListener(@NonNull String key, @NonNull OnLongProgressChangeListener onProgressChangeListener,
+                                                  @Nullable Executor executor) {
+            P.onProgressChangeListenerMap.put(key, executor == null
+                    ? onProgressChangeListener
+                    : new ConflatingProgressListener(onProgressChangeListener, executor));
+            P.lowPriorityListenerKeys.remove(key);
+            return this;
+        }
+
+        /**
+         * 按优先级注册进度监听器
+         *
+         * @param key                      监听器Key
+         * @param onProgressChangeListener 进度监听器
+         * @param priority                 {@link #PRIORITY_HIGH}每帧总会通知；
+         *                                 {@link #PRIORITY_LOW}预算用完时推迟到之后的帧，合并为最新进度值
+         * @return Builder实例以链式调用
+         */
+        public Builder registerOnProgressListener(@NonNull String key, @NonNull OnProgressChangeListener onProgressChangeListener,
+                                                  @ListenerPriority int priority) {
+            return registerOnProgressListener(key, IntProgressListenerAdapter.wrap(onProgressChangeListener), priority);
+        }
+
+        /**
+         * 按优先级注册64位进度监听器
+         *
+         * @param key                      监听器Key
+         * @param onProgressChangeListener 64位进度监听器
+         * @param priority                 {@link #PRIORITY_HIGH}每帧总会通知；
+         *                                 {@link #PRIORITY_LOW}预算用完时推迟到之后的帧，合并为最新进度值
+         * @return Builder实例以链式调用
+         */
+        public Builder registerOnProgressListener(@NonNull String key, @NonNull OnLongProgressChangeListener onProgressChangeListener,
+                                                  @ListenerPriority int priority) {
             P.onProgressChangeListenerMap.put(key, onProgressChangeListener);
+            if (priority == PRIORITY_LOW) {
+                P.lowPriorityListenerKeys.add(key);
+            } else {
+                P.lowPriorityListenerKeys.remove(key);
+            }
             return this;
         }
 
@@ -290,13 +823,69 @@ public class ProgressAnim implements ProgressAnimInterface {
          * @return ProgressAnim实例
          */
         public ProgressAnim create() {
-            ProgressAnim progressAnim = new ProgressAnim();
-            progressAnim.max = P.max;
-            progressAnim.interpolator = P.interpolator;
-            progressAnim.duration = P.duration;
-            progressAnim.onProgressChangeListenerMap.putAll(P.onProgressChangeListenerMap);
-            progressAnim.setupAnim();
+            return configure(new ProgressAnim(P.frameScheduler != null ? P.frameScheduler : new FrameDriver()));
+        }
+
+        /**
+         * 获取对象池配置Key
+         *
+         * @return 配置Key
+         */
+        @NonNull
+        ProgressAnimPool.Key poolKey() {
+            return new ProgressAnimPool.Key(P.max, P.duration, P.interpolator, P.interpolatorTableResolution,
+                    P.frameScheduler);
+        }
+
+        /**
+         * 按构造参数配置实例，复用的实例需先重置
+         *
+         * @param progressAnim ProgressAnim实例
+         * @return ProgressAnim实例
+         */
+        @NonNull
+        ProgressAnim configure(@NonNull ProgressAnim progressAnim) {
+            progressAnim.setMax(P.max);
+            if (P.interpolatorTableResolution > 0) {
+                TimeInterpolator interpolator = P.interpolator;
+                progressAnim.engine.setInterpolator(LookupTableInterpolator.of(
+                        interpolator, interpolator::getInterpolation, P.interpolatorTableResolution));
+            } else {
+                progressAnim.setInterpolator(P.interpolator);
+            }
+            progressAnim.setDuration(P.duration);
+            progressAnim.engine.setDurationMode(P.durationMode);
+            progressAnim.engine.setAdaptiveDurationRange(P.minAdaptiveDuration, P.maxAdaptiveDuration);
+            progressAnim.engine.setDispatchMode(P.dispatchMode);
+            progressAnim.engine.setMaxUpdateRate(P.maxUpdateRate);
+            // 总是设置：复用的实例可能保留着上一个配置的最小可见变化量
+            progressAnim.engine.setMinVisibleDelta(P.minVisiblePixelSpan > 0
+                    ? P.minVisiblePixels * P.max / P.minVisiblePixelSpan
+                    : 0f);
+            progressAnim.engine.setRetargetMode(P.retargetMode);
+            progressAnim.engine.setKeyframeQueue(P.keyframeQueueDepth, P.keyframeQueuePolicy);
+            progressAnim.engine.setQuantizeStep(P.quantizePixelSpan > 0
+                    ? (float) P.max / P.quantizePixelSpan
+                    : P.quantizeStep);
+            progressAnim.engine.setMetrics(P.metrics);
+            progressAnim.engine.setTraceRecorder(P.traceRecorder);
+            progressAnim.engine.setFrameBudget(P.frameBudget);
+            if (P.lowPriorityListenerKeys.isEmpty()) {
+                progressAnim.engine.registerOnLongProgressListeners(P.onProgressChangeListenerMap);
+            } else {
+                Map<String, OnLongProgressChangeListener> high = new LinkedHashMap<>();
+                Map<String, OnLongProgressChangeListener> low = new LinkedHashMap<>();
+                for (Map.Entry<String, OnLongProgressChangeListener> entry : P.onProgressChangeListenerMap.entrySet()) {
+                    if (P.lowPriorityListenerKeys.contains(entry.getKey())) {
+                        low.put(entry.getKey(), entry.getValue());
+                    } else {
+                        high.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                progressAnim.engine.registerOnLongProgressListeners(high);
+                progressAnim.engine.registerOnLongProgressListeners(low, PRIORITY_LOW);
+            }
             return progressAnim;
         }
     }
-}
\ No newline at end of file
+}
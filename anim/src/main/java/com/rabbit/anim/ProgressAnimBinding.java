@@ -0,0 +1,113 @@
+package com.rabbit.anim;
+
+import android.view.View;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+/**
+ * ProgressAnim与生命周期、目标View的绑定
+ * <p>
+ * 生命周期未到STARTED或目标View不在窗口中时暂停帧回调，恢复时直接跳到最新目标进度；
+ * 生命周期销毁时自动释放ProgressAnim。仅限主线程使用。
+ */
+@MainThread
+final class ProgressAnimBinding implements LifecycleEventObserver, View.OnAttachStateChangeListener {
+    /**
+     * 进度动画
+     */
+    @NonNull
+    private final ProgressAnim anim;
+
+    /**
+     * 生命周期。为null时不绑定
+     */
+    @Nullable
+    private Lifecycle lifecycle;
+
+    /**
+     * 目标View。为null时不绑定
+     */
+    @Nullable
+    private View view;
+
+    ProgressAnimBinding(@NonNull ProgressAnim anim) {
+        this.anim = anim;
+    }
+
+    /**
+     * 绑定生命周期，替换已绑定的生命周期
+     *
+     * @param owner 生命周期持有者
+     */
+    void bindLifecycle(@NonNull LifecycleOwner owner) {
+        if (lifecycle != null) {
+            lifecycle.removeObserver(this);
+        }
+        lifecycle = owner.getLifecycle();
+        // 添加时会按当前状态回调，随即更新暂停状态
+        lifecycle.addObserver(this);
+        update();
+    }
+
+    /**
+     * 绑定目标View，替换已绑定的View
+     *
+     * @param target 目标View
+     */
+    void bindView(@NonNull View target) {
+        if (view != null) {
+            view.removeOnAttachStateChangeListener(this);
+        }
+        view = target;
+        target.addOnAttachStateChangeListener(this);
+        update();
+    }
+
+    /**
+     * 解除所有绑定
+     */
+    void unbind() {
+        if (lifecycle != null) {
+            lifecycle.removeObserver(this);
+            lifecycle = null;
+        }
+        if (view != null) {
+            view.removeOnAttachStateChangeListener(this);
+            view = null;
+        }
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            // release会解除绑定
+            anim.release();
+            return;
+        }
+        update();
+    }
+
+    @Override
+    public void onViewAttachedToWindow(View v) {
+        update();
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(View v) {
+        update();
+    }
+
+    /**
+     * 按生命周期与View状态暂停或恢复
+     */
+    private void update() {
+        boolean visible = (lifecycle == null || lifecycle.getCurrentState().isAtLeast(Lifecycle.State.STARTED))
+                && (view == null || view.isAttachedToWindow());
+        anim.getEngine().setPaused(!visible);
+    }
+}
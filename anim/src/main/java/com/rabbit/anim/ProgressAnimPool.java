@@ -0,0 +1,227 @@
+package com.rabbit.anim;
+
+import android.animation.TimeInterpolator;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * ProgressAnim对象池
+ * <p>
+ * 适用于RecyclerView等频繁绑定、解绑的场景：按配置（最大进度、时长、插值器等）复用重置后的实例，
+ * 避免每次绑定创建引擎与帧驱动；按列表项稳定ID缓存目标进度，重新绑定时直接恢复，不从0开始重新播放动画。
+ * 插值器按实例区分，同一配置请复用同一个Builder。Builder设置了调用轨迹记录器时，同一时刻只能取出一个实例。仅限主线程调用。
+ */
+@MainThread
+public final class ProgressAnimPool {
+    /**
+     * 无稳定ID
+     */
+    public static final long NO_ID = -1L;
+
+    /**
+     * 默认每种配置最多保留的空闲实例数量
+     */
+    public static final int DEFAULT_MAX_IDLE_PER_KEY = 16;
+
+    /**
+     * 空闲实例，按配置分组
+     */
+    private final HashMap<Key, ArrayDeque<ProgressAnim>> idle = new HashMap<>();
+
+    /**
+     * 进度状态缓存
+     */
+    @NonNull
+    private final ProgressStateCache states;
+
+    /**
+     * 每种配置最多保留的空闲实例数量
+     */
+    private final int maxIdlePerKey;
+
+    public ProgressAnimPool() {
+        this(DEFAULT_MAX_IDLE_PER_KEY, ProgressStateCache.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param maxIdlePerKey 每种配置最多保留的空闲实例数量，超出时释放
+     * @param stateCapacity 进度状态缓存容量
+     */
+    public ProgressAnimPool(@IntRange(from = 0) int maxIdlePerKey, @IntRange(from = 1) int stateCapacity) {
+        this.maxIdlePerKey = Math.max(0, maxIdlePerKey);
+        this.states = new ProgressStateCache(stateCapacity);
+    }
+
+    /**
+     * 获取实例，不缓存进度状态
+     *
+     * @param builder 配置
+     * @return ProgressAnim实例
+     */
+    @NonNull
+    public ProgressAnim obtain(@NonNull ProgressAnim.Builder builder) {
+        return obtain(builder, NO_ID);
+    }
+
+    /**
+     * 获取实例。该稳定ID缓存过进度状态时直接跳到缓存的目标进度，并通知Builder中注册的监听器
+     *
+     * @param builder  配置
+     * @param stableId 列表项稳定ID，如RecyclerView.Adapter#getItemId。为{@link #NO_ID}时不缓存进度状态
+     * @return ProgressAnim实例
+     */
+    @NonNull
+    public ProgressAnim obtain(@NonNull ProgressAnim.Builder builder, long stableId) {
+        Key key = builder.poolKey();
+        ArrayDeque<ProgressAnim> deque = idle.get(key);
+        ProgressAnim anim = deque != null ? deque.pollLast() : null;
+        // 跳过放回对象池后被释放的实例
+        while (anim != null && anim.getEngine().isReleased()) {
+            anim = deque.pollLast();
+        }
+        if (anim == null) {
+            anim = builder.create();
+        } else {
+            anim.idle = false;
+            builder.configure(anim);
+        }
+        anim.poolKey = key;
+        anim.stableId = stableId;
+        if (stableId != NO_ID && states.contains(stableId)) {
+            anim.getEngine().jumpTo(states.get(stableId, 0L));
+        }
+        return anim;
+    }
+
+    /**
+     * 回收实例：保存进度状态，重置后放回对象池，已释放的实例只保存进度状态。回收后不可再使用该实例
+     *
+     * @param anim 由{@link #obtain(ProgressAnim.Builder, long)}获取的实例
+     */
+    public void recycle(@NonNull ProgressAnim anim) {
+        if (anim.idle) {
+            return;
+        }
+        // 重置会恢复暂停状态
+        anim.clearBinding();
+        anim.completeStream();
+        ProgressEngine engine = anim.getEngine();
+        if (anim.stableId != NO_ID) {
+            states.put(anim.stableId, engine.getTarget());
+        }
+        anim.stableId = NO_ID;
+        if (engine.isReleased()) {
+            // 已释放的实例（如绑定的生命周期已销毁）不再调度帧，不放回对象池
+            return;
+        }
+        engine.reset();
+        Key key = anim.poolKey;
+        if (key == null) {
+            anim.release();
+            return;
+        }
+        ArrayDeque<ProgressAnim> deque = idle.get(key);
+        if (deque == null) {
+            deque = new ArrayDeque<>();
+            idle.put(key, deque);
+        }
+        if (deque.size() < maxIdlePerKey) {
+            anim.idle = true;
+            deque.addLast(anim);
+        } else {
+            anim.release();
+        }
+    }
+
+    /**
+     * 移除稳定ID缓存的进度状态，如列表项被删除
+     *
+     * @param stableId 稳定ID
+     */
+    public void forget(long stableId) {
+        states.remove(stableId);
+    }
+
+    /**
+     * 获取空闲实例数量
+     *
+     * @return 空闲实例数量
+     */
+    public int getIdleCount() {
+        int count = 0;
+        for (ArrayDeque<ProgressAnim> deque : idle.values()) {
+            count += deque.size();
+        }
+        return count;
+    }
+
+    /**
+     * 释放所有空闲实例并清空进度状态缓存
+     */
+    public void clear() {
+        Iterator<Map.Entry<Key, ArrayDeque<ProgressAnim>>> iterator = idle.entrySet().iterator();
+        while (iterator.hasNext()) {
+            for (ProgressAnim anim : iterator.next().getValue()) {
+                anim.release();
+            }
+            iterator.remove();
+        }
+        states.clear();
+    }
+
+    /**
+     * 对象池配置Key
+     */
+    static final class Key {
+        private final long max;
+        private final long duration;
+        @NonNull
+        private final TimeInterpolator interpolator;
+        private final int tableResolution;
+        @Nullable
+        private final FrameScheduler scheduler;
+
+        Key(long max, long duration, @NonNull TimeInterpolator interpolator, int tableResolution,
+            @Nullable FrameScheduler scheduler) {
+            this.max = max;
+            this.duration = duration;
+            this.interpolator = interpolator;
+            this.tableResolution = tableResolution;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return max == key.max
+                    && duration == key.duration
+                    && tableResolution == key.tableResolution
+                    && interpolator.equals(key.interpolator)
+                    && scheduler == key.scheduler;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (int) (max ^ (max >>> 32));
+            result = 31 * result + (int) (duration ^ (duration >>> 32));
+            result = 31 * result + interpolator.hashCode();
+            result = 31 * result + tableResolution;
+            result = 31 * result + System.identityHashCode(scheduler);
+            return result;
+        }
+    }
+}
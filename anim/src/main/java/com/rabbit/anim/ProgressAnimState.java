@@ -0,0 +1,76 @@
+package com.rabbit.anim;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 可序列化的进度动画状态，用于在onSaveInstanceState中保存、在配置变更或进程重建后恢复
+ * <p>
+ * 以{@link ProgressSnapshot}的二进制形式写入Parcel，单个实例通常只占十余字节，
+ * 大量实例也可直接放入Bundle。
+ */
+public final class ProgressAnimState implements Parcelable {
+    @NonNull
+    private final byte[] bytes;
+
+    ProgressAnimState(@NonNull byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * 从二进制形式创建，如持久化后的{@link #toByteArray()}
+     *
+     * @param bytes 由{@link ProgressSnapshot#toByteArray()}编码的字节数组
+     * @return 进度动画状态
+     */
+    @NonNull
+    public static ProgressAnimState fromByteArray(@NonNull byte[] bytes) {
+        return new ProgressAnimState(bytes.clone());
+    }
+
+    /**
+     * 获取二进制形式
+     *
+     * @return 字节数组
+     */
+    @NonNull
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    /**
+     * 解码为状态快照
+     *
+     * @return 状态快照
+     * @throws IllegalArgumentException 格式不正确
+     */
+    @NonNull
+    public ProgressSnapshot getSnapshot() {
+        return ProgressSnapshot.fromByteArray(bytes);
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel dest, int flags) {
+        dest.writeByteArray(bytes);
+    }
+
+    public static final Creator<ProgressAnimState> CREATOR = new Creator<ProgressAnimState>() {
+        @Override
+        public ProgressAnimState createFromParcel(Parcel source) {
+            byte[] bytes = source.createByteArray();
+            return new ProgressAnimState(bytes != null ? bytes : new byte[0]);
+        }
+
+        @Override
+        public ProgressAnimState[] newArray(int size) {
+            return new ProgressAnimState[size];
+        }
+    };
+}
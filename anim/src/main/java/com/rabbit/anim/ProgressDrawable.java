@@ -0,0 +1,238 @@
+package com.rabbit.anim;
+
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.IntRange;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.graphics.drawable.DrawableCompat;
+
+/**
+ * 直接绘制进度的Drawable
+ * <p>
+ * 绑定ProgressAnim后，绘制时直接读取引擎的精确完成比例，不经过ProgressBar.setProgress的
+ * 取值范围校验、无障碍事件与整个Drawable的重绘；进度边缘移动不足1像素的帧不触发重绘，
+ * 需要重绘时只标记新旧边缘之间的区域。适合列表中大量进度条同时执行动画。
+ * 可作为任意View的背景、前景或ImageView的图片，仅在主线程使用
+ */
+@MainThread
+public class ProgressDrawable extends Drawable implements ProgressAnimInterface.OnLongProgressChangeListener {
+    /**
+     * 注册为进度监听器时使用的Key
+     */
+    public static final String LISTENER_KEY = "com.rabbit.anim.ProgressDrawable";
+
+    /**
+     * 未绘制时的进度边缘
+     */
+    private static final int NO_EDGE = Integer.MIN_VALUE;
+
+    /**
+     * 已完成部分画笔
+     */
+    private final Paint progressPaint = new Paint();
+
+    /**
+     * 未完成部分画笔
+     */
+    private final Paint trackPaint = new Paint();
+
+    /**
+     * 重绘区域，未在局部重绘时与边界相同
+     */
+    private final Rect dirtyBounds = new Rect();
+
+    /**
+     * 绑定的进度动画引擎，解绑后为null
+     */
+    @Nullable
+    private ProgressEngine engine;
+
+    /**
+     * 已完成部分颜色
+     */
+    @ColorInt
+    private int progressColor = 0xFF2196F3;
+
+    /**
+     * 未完成部分颜色
+     */
+    @ColorInt
+    private int trackColor = 0x33000000;
+
+    /**
+     * 透明度
+     */
+    private int alpha = 255;
+
+    /**
+     * 上次绘制的进度边缘(像素)
+     */
+    private int drawnEdge = NO_EDGE;
+
+    /**
+     * 是否为局部重绘
+     */
+    private boolean partialInvalidate;
+
+    /**
+     * @param progressAnim 进度动画。以{@link #LISTENER_KEY}注册为其进度监听器
+     */
+    public ProgressDrawable(@NonNull ProgressAnim progressAnim) {
+        this.engine = progressAnim.getEngine();
+        updatePaints();
+        progressAnim.registerOnProgressListener(LISTENER_KEY, this);
+    }
+
+    /**
+     * 解除与进度动画的绑定，之后保持最后绘制的进度
+     */
+    public void unbind() {
+        if (engine != null) {
+            engine.unregisterOnProgressListener(LISTENER_KEY);
+            engine = null;
+        }
+    }
+
+    /**
+     * 设置已完成部分颜色
+     *
+     * @param color 颜色
+     */
+    public void setProgressColor(@ColorInt int color) {
+        progressColor = color;
+        updatePaints();
+        invalidateSelf();
+    }
+
+    /**
+     * 设置未完成部分颜色
+     *
+     * @param color 颜色，透明时不绘制
+     */
+    public void setTrackColor(@ColorInt int color) {
+        trackColor = color;
+        updatePaints();
+        invalidateSelf();
+    }
+
+    @Override
+    public void onChange(long progress, double fraction) {
+        int edge = edgeFor(fraction);
+        if (edge == drawnEdge) {
+            // 进度边缘不足1像素的变化不可见，不重绘
+            return;
+        }
+        Rect bounds = getBounds();
+        if (drawnEdge == NO_EDGE) {
+            invalidateSelf();
+            return;
+        }
+        dirtyBounds.set(Math.min(edge, drawnEdge), bounds.top, Math.max(edge, drawnEdge), bounds.bottom);
+        // View.invalidateDrawable通过getDirtyBounds()获取重绘区域
+        partialInvalidate = true;
+        invalidateSelf();
+        partialInvalidate = false;
+    }
+
+    @Override
+    public void onFinish() {
+    }
+
+    @NonNull
+    @Override
+    public Rect getDirtyBounds() {
+        return partialInvalidate ? dirtyBounds : getBounds();
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        Rect bounds = getBounds();
+        if (bounds.isEmpty()) {
+            return;
+        }
+        int edge = engine != null ? edgeFor(engine.getFraction()) : drawnEdge;
+        if (edge == NO_EDGE) {
+            edge = edgeFor(0);
+        }
+        drawnEdge = edge;
+        // 已完成与未完成部分互不重叠，避免过度绘制
+        boolean rtl = isRtl();
+        int progressLeft = rtl ? edge : bounds.left;
+        int progressRight = rtl ? bounds.right : edge;
+        if (progressRight > progressLeft && progressPaint.getAlpha() != 0) {
+            canvas.drawRect(progressLeft, bounds.top, progressRight, bounds.bottom, progressPaint);
+        }
+        int trackLeft = rtl ? bounds.left : edge;
+        int trackRight = rtl ? edge : bounds.right;
+        if (trackRight > trackLeft && trackPaint.getAlpha() != 0) {
+            canvas.drawRect(trackLeft, bounds.top, trackRight, bounds.bottom, trackPaint);
+        }
+    }
+
+    /**
+     * 计算完成比例对应的进度边缘
+     *
+     * @param fraction 完成比例
+     * @return 进度边缘(像素)
+     */
+    private int edgeFor(double fraction) {
+        Rect bounds = getBounds();
+        int width = (int) Math.round(bounds.width() * Math.max(0d, Math.min(fraction, 1d)));
+        return isRtl() ? bounds.right - width : bounds.left + width;
+    }
+
+    private boolean isRtl() {
+        // Drawable.getLayoutDirection()从API 23开始提供
+        return DrawableCompat.getLayoutDirection(this) == View.LAYOUT_DIRECTION_RTL;
+    }
+
+    @Override
+    protected void onBoundsChange(@NonNull Rect bounds) {
+        drawnEdge = NO_EDGE;
+    }
+
+    @Override
+    public void setAlpha(@IntRange(from = 0, to = 255) int alpha) {
+        if (this.alpha != alpha) {
+            this.alpha = alpha;
+            updatePaints();
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return alpha;
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        progressPaint.setColorFilter(colorFilter);
+        trackPaint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    /**
+     * 按颜色与透明度更新画笔
+     */
+    private void updatePaints() {
+        progressPaint.setColor(progressColor);
+        progressPaint.setAlpha((progressColor >>> 24) * alpha / 255);
+        trackPaint.setColor(trackColor);
+        trackPaint.setAlpha((trackColor >>> 24) * alpha / 255);
+    }
+}
@@ -166,7 +166,10 @@ public class MainActivity extends AppCompatActivity {
                         Log.d(TAG, "onFinish: ");
                     }
                 })
-                .create();
+                .create()
+                // 页面不可见时暂停，销毁时自动释放
+                .bindLifecycle(this)
+                .bindView(progressBar);
 
         // 子任务串行
 //        progressBar.postDelayed(() -> progressAnim.animateTo(100),300);